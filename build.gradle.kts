@@ -13,6 +13,8 @@ java {
 
 tasks.withType(JavaCompile::class.java) {
     options.compilerArgs.add("--enable-preview")
+    // Optional, the string scanning falls back to scalar code without it
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
 }
 
 plugins {
@@ -52,6 +54,7 @@ configure<DependencyCheckExtension> {
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
     finalizedBy(tasks.jacocoTestReport) // report is always generated after tests run
 }
 tasks.jacocoTestReport {
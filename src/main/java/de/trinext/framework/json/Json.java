@@ -1,11 +1,25 @@
 package de.trinext.framework.json;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 import java.util.stream.Collector;
-
-import com.google.gson.Gson;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Dennis Woithe
@@ -15,11 +29,331 @@ public final class Json {
 
     private Json() { throw new AssertionError(); }
 
-    /** Converts a JSON-{@link String} to a tree of {@link JsonElement}s. */
+    /**
+     * Converts a JSON-{@link String} to a tree of {@link JsonElement}s.
+     *
+     * @throws JsonParseException if the string is not valid json.
+     */
     public static JsonElement<?> treeFromString(String jsonString) {
         return new JsonTextParser(jsonString).parse();
     }
 
+    /**
+     * Converts UTF-8 encoded JSON to a tree of {@link JsonElement}s without decoding it to a {@link String} first.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> treeFromBytes(byte[] utf8Json) {
+        return treeFromBytes(utf8Json, 0, utf8Json.length);
+    }
+
+    /**
+     * Converts a range of UTF-8 encoded JSON to a tree of {@link JsonElement}s without decoding it to a {@link String} first.
+     *
+     * @param offset the index of the first byte to parse.
+     * @param length the amount of bytes to parse.
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> treeFromBytes(byte[] utf8Json, int offset, int length) {
+        return new JsonBytesParser(utf8Json, offset, length).parse();
+    }
+
+    /**
+     * Converts the remaining bytes of a buffer containing UTF-8 encoded JSON to a tree of {@link JsonElement}s.
+     * The position of the buffer is not changed.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> treeFromBuffer(ByteBuffer utf8Json) {
+        return new JsonBytesParser(utf8Json).parse();
+    }
+
+    /**
+     * Converts a JSON-{@link String} to a tree of {@link JsonElement}s,
+     * canonicalizing keys (and short string values) through the passed table.
+     *
+     * @throws JsonParseException if the string is not valid json.
+     */
+    public static JsonElement<?> treeFromString(String jsonString, JsonSymbolTable symbols) {
+        var parser = new JsonTextParser(jsonString);
+        parser.symbols = Objects.requireNonNull(symbols);
+        return parser.parse();
+    }
+
+    /**
+     * Converts UTF-8 encoded JSON to a tree of {@link JsonElement}s,
+     * canonicalizing keys (and short string values) through the passed table.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> treeFromBytes(byte[] utf8Json, JsonSymbolTable symbols) {
+        var parser = new JsonBytesParser(utf8Json, 0, utf8Json.length);
+        parser.symbols = Objects.requireNonNull(symbols);
+        return parser.parse();
+    }
+
+    /**
+     * Converts only the parts of a JSON-{@link String} on the passed paths to a tree of {@link JsonElement}s.
+     * <p>
+     * The paths use the syntax of {@link JsonElement#findPath(String)}. Everything, that is not on one of them,
+     * is only validated and skipped, without creating elements or decoding strings.
+     * The result keeps the objects and arrays on the way to the selected values, for example
+     * {@code treeFromStringKeeping(json, "data.items.*.id", "meta.cursor")} only contains the ids of the items
+     * and the cursor. A path element marked strict with {@code !}, like in {@code "data.items.*!id"}, has to be present.
+     * <p>
+     * Arrays filtered by indexes are padded with {@link JsonNull#NULL} in place of the skipped elements
+     * before the last selected index, so that the selected elements keep their index.
+     * Such padding can not be told apart from null elements of the json itself.
+     *
+     * @throws JsonParseException if the string is not valid json or misses a path element marked strict.
+     */
+    public static JsonElement<?> treeFromStringKeeping(String jsonString, String... keepPaths) {
+        return JsonPathSelection.of(keepPaths).parse(new JsonTextParser(jsonString));
+    }
+
+    /**
+     * Converts only the parts of UTF-8 encoded JSON on the passed paths to a tree of {@link JsonElement}s.
+     *
+     * @throws JsonParseException if the bytes are not valid json or miss a path element marked strict.
+     * @see #treeFromStringKeeping(String, String...)
+     */
+    public static JsonElement<?> treeFromBytesKeeping(byte[] utf8Json, String... keepPaths) {
+        return JsonPathSelection.of(keepPaths).parse(new JsonBytesParser(utf8Json, 0, utf8Json.length));
+    }
+
+    /**
+     * Converts only the parts of the remaining bytes of a buffer containing UTF-8 encoded JSON on the passed paths
+     * to a tree of {@link JsonElement}s. The position of the buffer is not changed.
+     *
+     * @throws JsonParseException if the bytes are not valid json or miss a path element marked strict.
+     * @see #treeFromStringKeeping(String, String...)
+     */
+    public static JsonElement<?> treeFromBufferKeeping(ByteBuffer utf8Json, String... keepPaths) {
+        return JsonPathSelection.of(keepPaths).parse(new JsonBytesParser(utf8Json));
+    }
+
+    /**
+     * Converts UTF-8 encoded JSON to a lazy tree of {@link JsonElement}s.
+     * <p>
+     * The whole input is validated and its structure indexed up front,
+     * but objects, arrays and their values are only created when they are visited,
+     * so reading a few values of a big document only costs what is read.
+     * The lazy tree holds on to the passed array, which must not be modified afterward.
+     * Other than regular trees, lazy trees are not safe for concurrent reading.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> lazyTreeFromBytes(byte[] utf8Json) {
+        return JsonTape.index(new JsonBytesParser(utf8Json, 0, utf8Json.length)).element(0);
+    }
+
+    /**
+     * Converts a JSON-{@link String} to a lazy tree of {@link JsonElement}s.
+     *
+     * @throws JsonParseException if the string is not valid json.
+     * @see #lazyTreeFromBytes(byte[])
+     */
+    public static JsonElement<?> lazyTreeFromString(String jsonString) {
+        return JsonTape.index(new JsonTextParser(jsonString)).element(0);
+    }
+
+    /**
+     * Converts a JSON-{@link String} to a tree of {@link JsonElement}s,
+     * parsing the elements of a big top-level array concurrently on all cores.
+     *
+     * @throws JsonParseException if the string is not valid json.
+     * @see #parallelTreeFromBytes(byte[], int)
+     */
+    public static JsonElement<?> parallelTreeFromString(String jsonString) {
+        return parallelTreeFromString(jsonString, JsonParallelParser.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Converts a JSON-{@link String} to a tree of {@link JsonElement}s,
+     * parsing the elements of a top-level array concurrently on all cores.
+     *
+     * @param threshold the minimum length of the string to parse it in parallel.
+     * @throws JsonParseException if the string is not valid json.
+     * @see #parallelTreeFromBytes(byte[], int)
+     */
+    public static JsonElement<?> parallelTreeFromString(String jsonString, int threshold) {
+        return JsonParallelParser.parse(new JsonTextParser(jsonString), threshold);
+    }
+
+    /**
+     * Converts UTF-8 encoded JSON to a tree of {@link JsonElement}s,
+     * parsing the elements of a big top-level array concurrently on all cores.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     * @see #parallelTreeFromBytes(byte[], int)
+     */
+    public static JsonElement<?> parallelTreeFromBytes(byte[] utf8Json) {
+        return parallelTreeFromBytes(utf8Json, JsonParallelParser.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Converts UTF-8 encoded JSON to a tree of {@link JsonElement}s,
+     * parsing the elements of a top-level array concurrently on all cores.
+     * <p>
+     * A fast pass over the array finds the boundaries between its elements,
+     * on which it is split into chunks, that are parsed in the common {@link java.util.concurrent.ForkJoinPool}.
+     * The elements keep their order. Smaller inputs and other documents are parsed like {@link #treeFromBytes(byte[])}.
+     *
+     * @param threshold the minimum amount of bytes to parse them in parallel.
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static JsonElement<?> parallelTreeFromBytes(byte[] utf8Json, int threshold) {
+        return JsonParallelParser.parse(new JsonBytesParser(utf8Json, 0, utf8Json.length), threshold);
+    }
+
+    /**
+     * Converts a file containing UTF-8 encoded JSON to a tree of {@link JsonElement}s.
+     * The file is memory-mapped and parsed straight from the mapped region,
+     * so its raw text is never copied onto the heap.
+     *
+     * @throws JsonParseException if the file does not contain valid json.
+     * @throws IllegalArgumentException if the file is bigger than {@link Integer#MAX_VALUE} bytes.
+     */
+    public static JsonElement<?> treeFromPath(Path utf8JsonFile) throws IOException {
+        try (var channel = FileChannel.open(utf8JsonFile, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException(utf8JsonFile + " is too big to be mapped (" + size + " bytes)!");
+            var mapped = channel.map(MapMode.READ_ONLY, 0, size);
+            if (size >= 3 && mapped.get(0) == (byte) 0xEF && mapped.get(1) == (byte) 0xBB && mapped.get(2) == (byte) 0xBF)
+                mapped.position(3); // Skip the byte order mark
+            return treeFromBuffer(mapped);
+        }
+    }
+
+    /**
+     * Parses a JSON-{@link String} and passes its events to the handler, without creating any {@link JsonElement}s.
+     *
+     * @throws JsonParseException if the string is not valid json.
+     */
+    public static void parse(String jsonString, JsonHandler handler) {
+        new JsonTextParser(jsonString).parse(handler);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON and passes its events to the handler, without creating any {@link JsonElement}s.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static void parse(byte[] utf8Json, JsonHandler handler) {
+        new JsonBytesParser(utf8Json, 0, utf8Json.length).parse(handler);
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer containing UTF-8 encoded JSON and passes its events to the handler,
+     * without creating any {@link JsonElement}s. The position of the buffer is not changed.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static void parse(ByteBuffer utf8Json, JsonHandler handler) {
+        new JsonBytesParser(utf8Json).parse(handler);
+    }
+
+    /**
+     * Streams json text and passes its events to the handler, without creating any {@link JsonElement}s.
+     * The reader is not closed.
+     *
+     * @throws JsonParseException if the text is not valid json.
+     */
+    public static void parse(Reader json, JsonHandler handler) throws IOException {
+        parse(new JsonReader(json), handler);
+    }
+
+    /**
+     * Streams UTF-8 encoded JSON and passes its events to the handler, without creating any {@link JsonElement}s.
+     * The stream is not closed.
+     *
+     * @throws JsonParseException if the bytes are not valid json.
+     */
+    public static void parse(InputStream utf8Json, JsonHandler handler) throws IOException {
+        parse(new JsonReader(utf8Json), handler);
+    }
+
+    private static void parse(JsonReader reader, JsonHandler handler) throws IOException {
+        reader.readValue(handler);
+        reader.peek(); // Rejects trailing content
+    }
+
+    /**
+     * Copies json text token by token in the format of the options, without building a tree,
+     * e.g. to minify it with {@link JsonWriteOptions#COMPACT} or to pretty print it.
+     * The text is validated while it is copied and only fixed size buffers are held in memory.
+     * Numbers are copied as they are. With {@link JsonWriteOptions#withSortedKeys() sorted keys},
+     * the document is read as a tree first, since fields can only be sorted once all of them are known.
+     * Neither the reader nor the writer are closed.
+     *
+     * @throws JsonParseException if the text is not valid json. Everything before the error may have been written.
+     */
+    public static void reformat(Reader json, Writer out, JsonWriteOptions options) throws IOException {
+        reformat(new JsonReader(json), new JsonWriter(out, options), options);
+    }
+
+    /**
+     * Copies UTF-8 encoded json token by token in the format of the options, without building a tree.
+     * Neither stream is closed.
+     *
+     * @throws JsonParseException if the bytes are not valid json. Everything before the error may have been written.
+     * @see #reformat(Reader, Writer, JsonWriteOptions)
+     */
+    public static void reformat(InputStream utf8Json, OutputStream utf8Out, JsonWriteOptions options) throws IOException {
+        reformat(new JsonReader(utf8Json), new JsonWriter(utf8Out, options), options);
+    }
+
+    private static void reformat(JsonReader reader, JsonWriter writer, JsonWriteOptions options) throws IOException {
+        try {
+            if (options.isSortedKeys())
+                writer.value(reader.readElement());
+            else
+                reader.copyValue(writer);
+            reader.peek(); // Rejects trailing content
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Streams UTF-8 encoded newline-delimited JSON (NDJSON / JSON Lines) as one tree of {@link JsonElement}s per line.
+     * <p>
+     * Lines are read and parsed lazily while the stream is consumed, reusing one buffer for all lines.
+     * Blank lines are skipped. If the stream is made {@link Stream#parallel() parallel},
+     * batches of lines are parsed concurrently, while the encounter order is kept.
+     * Closing the returned stream closes the input stream.
+     * <p>
+     * A {@link JsonParseException} for an invalid line or an {@link UncheckedIOException}
+     * is thrown by the terminal operation, that reaches the line.
+     */
+    public static Stream<JsonElement<?>> linesFrom(InputStream utf8JsonLines) {
+        return linesFrom(utf8JsonLines, JsonLinesSpliterator.TREES);
+    }
+
+    /**
+     * Streams UTF-8 encoded newline-delimited JSON (NDJSON / JSON Lines) as one instance of the given class per line.
+     * Each line is bound right from the read bytes with the cached binding of the class, without building a tree.
+     * Like any other invalid line, a line binding to null, like {@code null}, throws a {@link JsonParseException}.
+     *
+     * @see #linesFrom(InputStream)
+     */
+    @SuppressWarnings("deprecation")
+    public static <T> Stream<T> linesFrom(InputStream utf8JsonLines, Class<T> cls) {
+        return linesFrom(utf8JsonLines, (utf8Json, offset, length) -> JsonBinding.read(utf8Json, offset, length, cls));
+    }
+
+    private static <T> Stream<T> linesFrom(InputStream utf8JsonLines, JsonLinesSpliterator.LineParser<T> parser) {
+        return StreamSupport.stream(new JsonLinesSpliterator<>(utf8JsonLines, parser), false)
+                .onClose(() -> {
+                    try {
+                        utf8JsonLines.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
     /** Converts any {@link Object}-instance to a tree of {@link JsonElement}s. */
     public static JsonElement<?> treeFromInstance(Object obj) {
         return obj instanceof JsonElement<?> jsonElement
@@ -27,8 +361,9 @@ public final class Json {
                : new JsonObjectParser(obj).parse();
     }
 
+    @SuppressWarnings("deprecation")
     public static <T> T instanceFromTree(JsonElement<?> jElem, Class<T> cls) {
-        return new Gson().fromJson(jElem.toString(), cls);
+        return JsonBinding.GSON.fromJson(jElem.toString(), cls);
     }
 
     /**
@@ -48,10 +383,18 @@ public final class Json {
 
     /**
      * A {@link BodyHandler} that converts the response body of a json-response to a tree of {@link JsonElement}s.
+     * <p>
+     * UTF-8 (and ASCII) bodies are parsed chunk by chunk while they are received, without buffering the body text.
+     * Bodies in other charsets are decoded to a {@link String} first.
      *
      * @param responseBodyCharset The charset to use for the response body.
      */
     public static BodyHandler<JsonElement<?>> treeBodyHandler(Charset responseBodyCharset) {
+        if (isUtf8Compatible(responseBodyCharset))
+            return (responseInfo) -> {
+                var builder = new JsonTreeBuilder();
+                return new JsonBodySubscriber<>(builder, builder::result);
+            };
         return (responseInfo) -> BodySubscribers.mapping(
                 BodySubscribers.ofString(responseBodyCharset),
                 Json::treeFromString
@@ -60,17 +403,40 @@ public final class Json {
 
     /**
      * A {@link BodyHandler} that converts the response body of a json-response to an instance of the given class.
+     * <p>
+     * UTF-8 (and ASCII) bodies are streamed chunk by chunk into the binding of the class while they are received,
+     * without buffering the body text or building any tree. The binding of each class is only created once and then reused.
+     * Bodies in other charsets are decoded to a {@link String} first.
      *
      * @param responseBodyCharset The charset to use for the response body.
      * @param cls The class to convert the json to.
      */
+    @SuppressWarnings("deprecation")
     public static <T> BodyHandler<T> instanceBodyHandler(Charset responseBodyCharset, Class<? extends T> cls) {
+        if (isUtf8Compatible(responseBodyCharset))
+            return (responseInfo) -> new JsonBindingSubscriber<T>(cls);
         return (responseInfo) -> BodySubscribers.mapping(
                 BodySubscribers.ofString(responseBodyCharset),
-                (jsonString) -> new Gson().fromJson(jsonString, cls)
+                (jsonString) -> JsonBinding.GSON.fromJson(jsonString, cls)
         );
     }
 
+    /**
+     * A {@link BodyPublisher} that sends a tree as UTF-8 encoded json request body.
+     * <p>
+     * The tree is serialized chunk by chunk, as the client requests the chunks, without materializing the body text.
+     * The content length is measured by {@link JsonElement#serializedSize()}, so the body is not sent chunked.
+     *
+     * @param body the tree, that must not be changed until the request was sent.
+     */
+    public static BodyPublisher bodyPublisher(JsonElement<?> body) {
+        return new JsonBodyPublisher(Objects.requireNonNull(body));
+    }
+
+    private static boolean isUtf8Compatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
     /**
      * A {@link Collector} that collects {@link JsonElement}s to a {@link JsonList}.
      */
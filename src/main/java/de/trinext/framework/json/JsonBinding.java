@@ -0,0 +1,85 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Binds json to instances of classes with a single shared {@link Gson},
+ * so the reflective binding metadata of each class is only created once.
+ *
+ * @author Dennis Woithe
+ * @deprecated Gets removed when {@link com.google.gson} is not wrapped anymore.
+ */
+@Deprecated
+final class JsonBinding {
+
+    /** Gson is thread-safe and caches the binding of each type it has seen. */
+    static final Gson GSON = new Gson();
+
+    private static final ClassValue<TypeAdapter<?>> ADAPTERS = new ClassValue<>() {
+        @Override
+        protected TypeAdapter<?> computeValue(Class<?> type) {
+            return GSON.getAdapter(type);
+        }
+    };
+
+    private JsonBinding() { throw new AssertionError(); }
+
+    /** Returns the cached binding of the class. */
+    @SuppressWarnings("unchecked")
+    static <T> TypeAdapter<T> adapter(Class<T> cls) {
+        return (TypeAdapter<T>) ADAPTERS.get(cls);
+    }
+
+    /**
+     * Binds json text to an instance of the class straight from the reader with the cached binding,
+     * without building any tree or {@link String} of the whole text.
+     * Like {@link Gson#fromJson(Reader, Class)}, an empty document binds to null.
+     *
+     * @throws JsonSyntaxException if the text is not valid json, does not match the class or anything follows it.
+     * @throws IOException if reading fails.
+     */
+    static <T> T read(Reader json, Class<? extends T> cls) throws IOException {
+        var reader = GSON.newJsonReader(json);
+        var empty = true;
+        try {
+            reader.peek();
+            empty = false;
+            T res = adapter(cls).read(reader);
+            if (res != null && reader.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            return res;
+        } catch (EOFException e) {
+            if (empty)
+                return null;
+            throw new JsonSyntaxException(e);
+        } catch (MalformedJsonException | IllegalStateException e) { // Gson reports mismatching types as illegal state
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Binds UTF-8 encoded json to an instance of the class straight from the bytes, without decoding them to a {@link String}.
+     *
+     * @throws JsonSyntaxException if the bytes are not valid json.
+     */
+    static <T> T read(byte[] utf8Json, int offset, int length, Class<? extends T> cls) {
+        try {
+            return read(new InputStreamReader(new ByteArrayInputStream(utf8Json, offset, length), UTF_8), cls);
+        } catch (IOException e) { // Never thrown by a byte array
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@link BodySubscriber}, that binds a UTF-8 encoded json body to an instance of a class while it is received.
+ * <p>
+ * The chunks are streamed into a gson reader, from which the cached binding of the class reads the instance,
+ * so neither the body text nor any tree is ever held as a whole.
+ * Reading blocks until the next chunk arrives, so it runs on a virtual thread instead of the one of the client.
+ *
+ * @param <T> the type of the body.
+ * @author Dennis Woithe
+ * @deprecated Gets removed when {@link com.google.gson} is not wrapped anymore.
+ */
+@Deprecated
+final class JsonBindingSubscriber<T> implements BodySubscriber<T> {
+
+    private final BodySubscriber<InputStream> stream = BodySubscribers.ofInputStream();
+
+    private final CompletionStage<T> body;
+
+    JsonBindingSubscriber(Class<? extends T> cls) {
+        body = stream.getBody().thenApplyAsync(in -> read(in, cls), Thread::startVirtualThread);
+    }
+
+    private static <T> T read(InputStream in, Class<? extends T> cls) {
+        try (var reader = new InputStreamReader(in, UTF_8)) {
+            return JsonBinding.read(reader, cls);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        stream.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+        stream.onNext(chunks);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        stream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        stream.onComplete();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package de.trinext.framework.json;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BodyPublisher}, that sends a tree as UTF-8 encoded json body, which is only serialized as it is requested.
+ * <p>
+ * Each requested chunk is filled with the next {@value #CHUNK_SIZE} bytes of the text by a step by step
+ * {@link JsonSerializer}, so the upload starts right away and the body is never held as a whole.
+ * Single strings and memoised texts, that are bigger, make a chunk bigger.
+ * Every subscription serializes the tree again, so the publisher can be subscribed to repeatedly.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonBodyPublisher implements BodyPublisher {
+
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    private final JsonElement<?> body;
+
+    JsonBodyPublisher(JsonElement<?> body) {
+        this.body = body;
+    }
+
+    /** The length is measured without serializing the tree, so the body is never sent chunked. */
+    @Override
+    public long contentLength() {
+        return body.serializedSize().utf8Bytes();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new ChunkSubscription(subscriber, new JsonSerializer(body)));
+    }
+
+    /** Serializes the next chunk for each requested one, on the thread that requests it. */
+    private static final class ChunkSubscription implements Subscription {
+
+        private final Subscriber<? super ByteBuffer> subscriber;
+
+        private final JsonSerializer serializer;
+
+        private final JsonUtf8Sink sink = new JsonUtf8Sink();
+
+        private final AtomicLong demand = new AtomicLong();
+
+        /** The amount of pending drains, so that only one thread drains at once. */
+        private final AtomicInteger drains = new AtomicInteger();
+
+        /** Whether no more signals may be sent, because the subscription was cancelled or terminated. */
+        private volatile boolean done;
+
+        /** The error of an invalid request, which the draining thread delivers, or null. */
+        private volatile Throwable error;
+
+        ChunkSubscription(Subscriber<? super ByteBuffer> subscriber, JsonSerializer serializer) {
+            this.subscriber = subscriber;
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0)
+                error = new IllegalArgumentException("Requested " + n + " chunks");
+            else
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        /** Sends all signals, only ever on one thread at once, while the other ones just leave a pending drain. */
+        private void drain() {
+            if (drains.getAndIncrement() != 0)
+                return;
+            do {
+                if (error != null && !done) {
+                    done = true;
+                    subscriber.onError(error);
+                    return;
+                }
+                while (!done && error == null && demand.get() > 0) {
+                    ByteBuffer chunk;
+                    try {
+                        while (sink.size() < CHUNK_SIZE && serializer.hasNext())
+                            serializer.writeNext(sink);
+                        if (!serializer.hasNext())
+                            sink.finish();
+                        chunk = sink.take();
+                    } catch (Exception e) {
+                        done = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(chunk);
+                    if (!serializer.hasNext() && !done) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                }
+            } while (drains.decrementAndGet() != 0);
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package de.trinext.framework.json;
+
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow.Subscription;
+import java.util.function.Supplier;
+
+/**
+ * A {@link BodySubscriber}, that parses a UTF-8 encoded json body with a {@link JsonPushParser} while it is received.
+ * <p>
+ * Each chunk is parsed as soon as it arrives and is not kept afterward,
+ * so parsing overlaps with the transfer and the body text is never held as a whole.
+ * The next chunks are only requested, once the previous ones were parsed.
+ *
+ * @param <T> the type of the body, that the handler builds.
+ * @author Dennis Woithe
+ */
+final class JsonBodySubscriber<T> implements BodySubscriber<T> {
+
+    private final CompletableFuture<T> body = new CompletableFuture<>();
+
+    private final JsonPushParser parser;
+
+    private final Supplier<? extends T> result;
+
+    private Subscription subscription;
+
+    /**
+     * @param handler receives the events of the body.
+     * @param result creates the body from the handler, after the whole body was parsed.
+     */
+    JsonBodySubscriber(JsonHandler handler, Supplier<? extends T> result) {
+        this.parser = new JsonPushParser(handler);
+        this.result = result;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> chunks) {
+        if (body.isDone())
+            return;
+        try {
+            chunks.forEach(parser::feed);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            body.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (body.isDone())
+            return;
+        try {
+            parser.finish();
+            body.complete(result.get());
+        } catch (RuntimeException e) {
+            body.completeExceptionally(e);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package de.trinext.framework.json;
+
+/**
+ * Finds the characters that end the plain part of a UTF-8 encoded json string.
+ * <p>
+ * If the incubating module {@code jdk.incubator.vector} is enabled (with {@code --add-modules jdk.incubator.vector})
+ * and the cpu supports it, whole vectors of 16 to 64 bytes are checked per step.
+ * Otherwise, the bytes are checked one by one.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonByteScanner {
+
+    /** Whether the vectorized scanner is used. */
+    static final boolean VECTORIZED = isVectorApiUsable();
+
+    private JsonByteScanner() { throw new AssertionError(); }
+
+    /**
+     * Returns the index of the first quote, backslash or control character in the range
+     * or the end of the range if there is none.
+     */
+    static int indexOfSpecial(byte[] bytes, int from, int to) {
+        return VECTORIZED
+               ? JsonVectorScanner.indexOfSpecial(bytes, from, to)
+               : indexOfSpecialScalar(bytes, from, to);
+    }
+
+    static int indexOfSpecialScalar(byte[] bytes, int from, int to) {
+        for (var i = from; i < to; i++)
+            if (isSpecial(bytes[i]))
+                return i;
+        return to;
+    }
+
+    static boolean isSpecial(byte b) {
+        return b == '"' || b == '\\' || (b >= 0 && b < 0x20);
+    }
+
+    private static boolean isVectorApiUsable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return false;
+        try {
+            return JsonVectorScanner.isSupported();
+        } catch (LinkageError notLinkable) {
+            return false;
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package de.trinext.framework.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Parses UTF-8 encoded json directly into a tree of {@link JsonElement}s without decoding the whole input first.
+ * <p>
+ * Only the contents of strings get decoded.
+ * The plain parts of strings are found with the {@link JsonByteScanner}
+ * and decoded in one piece, for pure ascii (like most keys) by a plain copy.
+ *
+ * @author Dennis Woithe
+ */
+class JsonBytesParser extends JsonSourceParser {
+
+    private final ByteBuffer bytes;
+
+    /** The backing array of the buffer, which can be scanned faster, or null. */
+    private final byte[] array;
+
+    private final int arrayOffset;
+
+    /** Parses the remaining bytes of the buffer without changing its position. */
+    JsonBytesParser(ByteBuffer bytes) {
+        super(bytes.position(), bytes.limit());
+        this.bytes = bytes;
+        this.array = bytes.hasArray() ? bytes.array() : null;
+        this.arrayOffset = bytes.hasArray() ? bytes.arrayOffset() : 0;
+    }
+
+    private JsonBytesParser(JsonBytesParser source, int from, int to) {
+        super(source.start, from, to);
+        this.bytes = source.bytes;
+        this.array = source.array;
+        this.arrayOffset = source.arrayOffset;
+        this.symbols = source.symbols;
+    }
+
+    JsonBytesParser(byte[] bytes, int offset, int length) {
+        this(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @Override
+    int at(int idx) {
+        return bytes.get(idx) & 0xFF;
+    }
+
+    @Override
+    String asciiText(int from, int to) {
+        return decode(from, to, ISO_8859_1);
+    }
+
+    @Override
+    JsonSourceParser slice(int from, int to) {
+        return new JsonBytesParser(this, from, to);
+    }
+
+    @Override
+    String parseString() {
+        var strStart = pos;
+        var special = nextSpecial(strStart);
+        // Fast path: strings without escapes are decoded in one piece
+        if (special < end && bytes.get(special) == '"') {
+            pos = special + 1;
+            return decode(strStart, special);
+        }
+        var sb = new StringBuilder(special - strStart + 16);
+        var runStart = strStart;
+        while (true) {
+            pos = special;
+            if (special >= end)
+                throw error("Unterminated string");
+            var b = bytes.get(special);
+            if (b != '"' && b != '\\')
+                throw error("Unescaped control character in string");
+            sb.append(decode(runStart, special));
+            pos++;
+            if (b == '"')
+                return sb.toString();
+            sb.append(parseEscape());
+            runStart = pos;
+            special = nextSpecial(pos);
+        }
+    }
+
+    @Override
+    void skipString() {
+        while (true) {
+            pos = nextSpecial(pos);
+            if (pos >= end)
+                throw error("Unterminated string");
+            var b = bytes.get(pos);
+            if (b != '"' && b != '\\')
+                throw error("Unescaped control character in string");
+            pos++;
+            if (b == '"')
+                return;
+            parseEscape();
+        }
+    }
+
+    /** Returns the index of the next quote, backslash or control character or the end if there is none. */
+    private int nextSpecial(int from) {
+        if (array != null)
+            return JsonByteScanner.indexOfSpecial(array, from + arrayOffset, end + arrayOffset) - arrayOffset;
+        for (var i = from; i < end; i++)
+            if (JsonByteScanner.isSpecial(bytes.get(i)))
+                return i;
+        return end;
+    }
+
+    /** Decodes a range of UTF-8, for which the JDK already takes a fast path if it only contains ascii. */
+    private String decode(int from, int to) {
+        return decode(from, to, UTF_8);
+    }
+
+    private String decode(int from, int to, Charset charset) {
+        if (from == to)
+            return "";
+        if (bytes.hasArray())
+            return new String(bytes.array(), bytes.arrayOffset() + from, to - from, charset);
+        var copy = new byte[to - from];
+        bytes.get(from, copy);
+        return new String(copy, charset);
+    }
+
+}
\ No newline at end of file
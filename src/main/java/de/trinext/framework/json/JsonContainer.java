@@ -1,7 +1,24 @@
 package de.trinext.framework.json;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
 /**
  * The classification for a {@link JsonElement} that contains other {@link JsonElement}s.
+ * <p>
+ * Containers memoise their json text, once it was created by {@link #toString()} on them, and the size measured by
+ * {@link #serializedSize()}, which is also kept for the bigger containers in the upper levels.
+ * Every container inside a memoised one is linked to the nearest memoised container around it.
+ * Every change through the methods of a container drops its text and size and the ones of the memoised containers
+ * around it, so an unchanged tree is only rendered once.
+ * Removed containers drop their links, so they never keep their former tree reachable.
+ * <p>
+ * Containers are not thread-safe. Reading and serializing a tree from several threads at once is safe,
+ * since the links are guarded and the memoised texts and sizes are immutable, but changes need external synchronization.
  *
  * @param <V> The type of container
  *
@@ -10,8 +27,184 @@ package de.trinext.framework.json;
 @SuppressWarnings({"unused", "WeakerAccess"})
 public abstract sealed class JsonContainer<V> extends JsonElement<V> permits JsonList, JsonMap {
 
+    /** The json text of this container, while it is unchanged, or null. */
+    String serialized;
+
+    /** The size of the json text of this container, while it is unchanged, or null. */
+    JsonSize size;
+
+    /**
+     * The nearest memoised containers around this container, whose text includes the text of this container:
+     * null, one container or a list of them. Guarded by this container.
+     */
+    private Object includedIn;
+
     JsonContainer(V value) {
         super(value);
     }
 
+    // ==== MEMOISATION ====================================================== //
+
+    /** Links the containers inside this one, whose text or size this container memoises, to this container. */
+    final void includes(List<JsonContainer<?>> contained) {
+        if (contained != null)
+            for (var container : contained)
+                container.includedIn(this);
+    }
+
+    /** Registers, that the memoised text of the container around this one includes the text of this container. */
+    @SuppressWarnings("unchecked")
+    private synchronized void includedIn(JsonContainer<?> memoised) {
+        if (includedIn == null)
+            includedIn = memoised;
+        else if (includedIn instanceof JsonContainer<?> other) {
+            if (other != memoised)
+                includedIn = new ArrayList<>(List.of(other, memoised));
+        } else {
+            var containers = (List<JsonContainer<?>>) includedIn;
+            for (var other : containers)
+                if (other == memoised)
+                    return;
+            containers.add(memoised);
+        }
+    }
+
+    private synchronized Object takeIncludedIn() {
+        var res = includedIn;
+        includedIn = null;
+        return res;
+    }
+
+    /**
+     * Adds a container and the containers inside it to the ones, whose nearest memoised container is not known yet.
+     * The smaller list is merged into the bigger one, so the containers of a deep tree are not copied for every level.
+     */
+    static ArrayList<JsonContainer<?>> unlinked(
+            ArrayList<JsonContainer<?>> unlinked, ArrayList<JsonContainer<?>> inside, JsonContainer<?> container
+    ) {
+        if (inside != null && (unlinked == null || inside.size() > unlinked.size())) {
+            var bigger = inside;
+            inside = unlinked;
+            unlinked = bigger;
+        }
+        if (unlinked == null)
+            unlinked = new ArrayList<>();
+        if (inside != null)
+            unlinked.addAll(inside);
+        unlinked.add(container);
+        return unlinked;
+    }
+
+    /** Drops the memoised text and size of this container and of all memoised containers around it. */
+    final void invalidate() {
+        serialized = null;
+        size = null;
+        dropIncluding(this);
+    }
+
+    /**
+     * Cuts a removed element loose from its former tree: the links of all containers in it are dropped,
+     * together with the memoised texts and sizes they lead to, so it never keeps the former tree reachable.
+     */
+    static void detach(JsonElement<?> removed) {
+        if (!(removed instanceof JsonContainer<?> container))
+            return;
+        var pending = new ArrayDeque<JsonContainer<?>>();
+        pending.push(container);
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            dropIncluding(node);
+            node.addCreatedContainers(pending);
+        }
+    }
+
+    /** Adds the containers directly inside this one, that were already created, to the collection. */
+    abstract void addCreatedContainers(Collection<JsonContainer<?>> out);
+
+    /** Drops the memoised texts and sizes of all containers, whose text includes the one of the container. */
+    private static void dropIncluding(JsonContainer<?> container) {
+        ArrayDeque<JsonContainer<?>> pending = null;
+        var links = container.takeIncludedIn();
+        while (true) {
+            if (links instanceof List<?> list) {
+                if (pending == null)
+                    pending = new ArrayDeque<>();
+                for (var memoised : list)
+                    pending.push((JsonContainer<?>) memoised);
+            } else if (links != null) {
+                if (pending == null)
+                    pending = new ArrayDeque<>();
+                pending.push((JsonContainer<?>) links);
+            }
+            var node = pending == null ? null : pending.poll();
+            if (node == null)
+                return;
+            node.serialized = null;
+            node.size = null;
+            links = node.takeIncludedIn();
+        }
+    }
+
+    /** Wraps an iterator over the content, so that removing through it drops the memoised text. */
+    final <E> Iterator<E> tracked(Iterator<E> it) {
+        return new Iterator<>() {
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return last = it.next();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                invalidate();
+                detach(last instanceof Entry<?, ?> entry ? (JsonElement<?>) entry.getValue() : (JsonElement<?>) last);
+            }
+        };
+    }
+
+    /** Wraps an entry of the content, so that replacing its value drops the memoised text. */
+    final <K, E> Entry<K, E> tracked(Entry<K, E> entry) {
+        return new Entry<>() {
+            @Override
+            public K getKey() {
+                return entry.getKey();
+            }
+
+            @Override
+            public E getValue() {
+                return entry.getValue();
+            }
+
+            @Override
+            public E setValue(E value) {
+                var res = entry.setValue(value);
+                invalidate();
+                detach((JsonElement<?>) res);
+                return res;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return entry.equals(obj);
+            }
+
+            @Override
+            public int hashCode() {
+                return entry.hashCode();
+            }
+
+            @Override
+            public String toString() {
+                return entry.toString();
+            }
+        };
+    }
+
 }
\ No newline at end of file
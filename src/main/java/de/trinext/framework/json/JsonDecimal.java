@@ -5,6 +5,11 @@ import java.math.BigDecimal;
 
 /**
  * The json representation of a potentially infinitely precise decimal number.
+ * <p>
+ * Decimals created from doubles or floats and parsed decimals, whose text is exactly the shortest representation
+ * of a double, like {@code 0.1} or {@code 12.5}, are also held as double and parsed ones only create
+ * their {@link BigDecimal}, when it is asked for. Their exact value is the shortest decimal, that rounds to the double.
+ * All others are held as {@link BigDecimal}. Both are equal and hash alike, if they have the same exact value.
  *
  * @author Dennis Woithe
  * @see BigDecimal java equivalent
@@ -12,22 +17,53 @@ import java.math.BigDecimal;
 @SuppressWarnings({"unused", "WeakerAccess"})
 public final class JsonDecimal extends JsonNumber<BigDecimal> {
 
+    private final boolean isDouble;
+    /** The value, if it is held as double. */
+    private final double asDouble;
+    /** The value of other decimals, otherwise created by {@link #bigValue()}. Racy, but it is always the same value. */
+    private BigDecimal bigValue;
+
     // ==== CONSTRUCTORS ===================================================== //
 
+    /** Creates a decimal held as double, whose {@link BigDecimal} is created when asked for, if it is null. */
+    private JsonDecimal(double value, BigDecimal bigValue) {
+        super(bigValue);
+        isDouble = true;
+        asDouble = value;
+        this.bigValue = bigValue;
+    }
+
     private JsonDecimal(BigDecimal value) {
         super(value);
+        isDouble = false;
+        asDouble = 0;
+        bigValue = value;
+    }
+
+    /**
+     * Creates a parsed decimal equal to {@link #from(double)}, which only creates its {@link BigDecimal},
+     * when it is asked for.
+     */
+    static JsonDecimal parsed(double value) {
+        if (!Double.isFinite(value))
+            throw new NumberFormatException("Infinite or NaN");
+        return new JsonDecimal(value, null);
     }
 
     // METHODS ========================================================>>
 
     /**
-     * Turns a float into a {@link JsonDecimal}.
+     * Turns a float into a {@link JsonDecimal}, whose exact value is the shortest decimal, that rounds to the float.
      *
      * @param value the float to be converted.
      * @return the {@link JsonDecimal} representing the float.
+     * @throws NumberFormatException if the float is infinite or NaN.
      */
     public static JsonDecimal from(float value) {
-        return from(new BigDecimal(value));
+        if (!Float.isFinite(value))
+            throw new NumberFormatException("Infinite or NaN");
+        // At most 9 digits, so the double of them has the same shortest representation
+        return from(Double.parseDouble(Float.toString(value)));
     }
 
     /**
@@ -41,15 +77,67 @@ public final class JsonDecimal extends JsonNumber<BigDecimal> {
     }
 
     /**
-     * Turns a double into a {@link JsonDecimal}.
+     * Turns a double into a {@link JsonDecimal}, whose exact value is the shortest decimal, that rounds to the double,
+     * like {@code 0.1} instead of its exact binary expansion. The double is kept as it is.
      *
      * @param value the double to be converted.
-     * @return the {@link JsonDecimal} representing the double.
+     * @return the {@link JsonDecimal} equal to {@code JsonDecimal.from(BigDecimal.valueOf(value))}.
+     * @throws NumberFormatException if the double is infinite or NaN.
      */
     public static JsonDecimal from(double value) {
-        return from(new BigDecimal(value));
+        if (!Double.isFinite(value))
+            throw new NumberFormatException("Infinite or NaN");
+        return new JsonDecimal(value, BigDecimal.valueOf(value));
+    }
+
+    /** Whether the decimal is held as double, because that is its shortest representation. */
+    boolean isDouble() {
+        return isDouble;
+    }
+
+    /**
+     * Returns the exact value as {@link BigDecimal}, which is created on the first call for decimals held as double.
+     *
+     * @return the exact value of this {@link JsonDecimal}.
+     */
+    @Override
+    BigDecimal bigValue() {
+        var res = bigValue;
+        if (res == null)
+            bigValue = res = BigDecimal.valueOf(asDouble);
+        return res;
+    }
+
+    /** Keeps the low-order bits of the integer part like {@link BigDecimal#intValue()}, instead of saturating. */
+    @Override
+    int intValue() {
+        return (int) longValue();
+    }
+
+    /** Keeps the low-order bits of the integer part like {@link BigDecimal#longValue()}, instead of saturating. */
+    @Override
+    long longValue() {
+        // Doubles in the range of longs are truncated the same way, only others need the big value
+        return isDouble && Math.abs(asDouble) < 0x1p63 ? (long) asDouble : bigValue().longValue();
+    }
+
+    @Override
+    double doubleValue() {
+        return isDouble ? asDouble : bigValue.doubleValue();
+    }
+
+    @Override
+    int valueHashCode() {
+        return bigValue().hashCode();
     }
 
+    @Override
+    boolean valueEquals(JsonElement<?> other) {
+        var otherDec = (JsonDecimal) other;
+        if (isDouble && otherDec.isDouble)
+            return asDouble == otherDec.asDouble;
+        return bigValue().equals(otherDec.bigValue());
+    }
 
     /**
      * Returns the string representation of this {@link JsonDecimal}.
@@ -58,7 +146,105 @@ public final class JsonDecimal extends JsonNumber<BigDecimal> {
      */
     @Override
     public String toString() {
-        return value.toPlainString();
+        return isDouble ? toPlainString(asDouble) : bigValue.toPlainString();
+    }
+
+    /**
+     * Writes a finite double like {@code BigDecimal.valueOf(value).toPlainString()} without creating the {@link BigDecimal}.
+     * The shortest digits are found by {@link Double#toString(double)}, which implements the Schubfach algorithm,
+     * and only moved out of its scientific notation.
+     *
+     * @param value the double to be written.
+     * @return the plain string of the shortest decimal, that rounds to the double.
+     */
+    static String toPlainString(double value) {
+        if (value == 0)
+            return "0.0";
+        var shortest = Double.toString(value);
+        var expIdx = shortest.indexOf('E');
+        if (expIdx < 0)
+            return shortest;
+        // Scientific notation always has a single digit before the point
+        var pointIdx = shortest.indexOf('.');
+        var fracLen = expIdx - pointIdx - 1;
+        var exponent = Integer.parseInt(shortest, expIdx + 1, shortest.length(), 10);
+        var sb = new StringBuilder(fracLen + Math.abs(exponent) + 4);
+        if (value < 0)
+            sb.append('-');
+        if (exponent < 0) {
+            sb.append("0.");
+            sb.repeat('0', -exponent - 1);
+            sb.append(shortest.charAt(pointIdx - 1)).append(shortest, pointIdx + 1, expIdx);
+        } else if (exponent >= fracLen) {
+            sb.append(shortest.charAt(pointIdx - 1)).append(shortest, pointIdx + 1, expIdx);
+            sb.repeat('0', exponent - fracLen);
+        } else {
+            sb.append(shortest.charAt(pointIdx - 1)).append(shortest, pointIdx + 1, pointIdx + 1 + exponent);
+            sb.append('.').append(shortest, pointIdx + 1 + exponent, expIdx);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes a finite double like {@code Number.prototype.toString()} of JavaScript does,
+     * as required for canonical json by RFC 8785: the shortest digits, plain up to 21 integer digits
+     * and down to 6 leading zeros of the fraction, otherwise in scientific notation like {@code 1e+21}.
+     *
+     * @param value the double to be written.
+     */
+    static String toCanonicalString(double value) {
+        if (value == 0)
+            return "0";
+        var shortest = Double.toString(Math.abs(value));
+        var expIdx = shortest.indexOf('E');
+        var end = expIdx < 0 ? shortest.length() : expIdx;
+        var pointIdx = shortest.indexOf('.');
+        var digits = new StringBuilder(end).append(shortest, 0, pointIdx).append(shortest, pointIdx + 1, end);
+        // The value is 0.digits * 10^n
+        var n = pointIdx + (expIdx < 0 ? 0 : Integer.parseInt(shortest, expIdx + 1, shortest.length(), 10));
+        var leadingZeros = 0;
+        while (digits.charAt(leadingZeros) == '0')
+            leadingZeros++;
+        digits.delete(0, leadingZeros);
+        n -= leadingZeros;
+        var k = digits.length();
+        while (digits.charAt(k - 1) == '0')
+            k--;
+        digits.setLength(k);
+        if (k == 2) { // Double.toString picks two digits, where one may already be enough
+            var abs = Math.abs(value);
+            var down = digits.charAt(0) - '0';
+            var first = digits.charAt(1) >= '5' ? down + 1 : down;
+            for (var single : new int[] {first, 2 * down + 1 - first}) {
+                if (single == 0)
+                    continue;
+                var exponent = single == 10 ? n : n - 1;
+                if (Double.parseDouble((single == 10 ? 1 : single) + "E" + exponent) == abs) {
+                    digits.setLength(0);
+                    digits.append(single == 10 ? 1 : single);
+                    n = exponent + 1;
+                    k = 1;
+                    break;
+                }
+            }
+        }
+
+        var sb = new StringBuilder(k + 8);
+        if (value < 0)
+            sb.append('-');
+        if (k <= n && n <= 21)
+            sb.append(digits).repeat('0', n - k);
+        else if (0 < n && n <= 21)
+            sb.append(digits, 0, n).append('.').append(digits, n, k);
+        else if (-6 < n && n <= 0)
+            sb.append("0.").repeat('0', -n).append(digits);
+        else {
+            sb.append(digits.charAt(0));
+            if (k > 1)
+                sb.append('.').append(digits, 1, k);
+            sb.append('e').append(n > 0 ? '+' : '-').append(Math.abs(n - 1));
+        }
+        return sb.toString();
     }
 
 }
\ No newline at end of file
@@ -1,8 +1,16 @@
 package de.trinext.framework.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -22,6 +30,10 @@ import static java.util.stream.Collectors.toSet;
 @SuppressWarnings({"unused", "WeakerAccess", "ClassReferencesSubclass"})
 public abstract sealed class JsonElement<V> permits JsonContainer, JsonPrimitive, JsonNull {
 
+    /**
+     * The wrapped value. Only parsed numbers held as long or double leave it null,
+     * so code, that may see numbers, reads them through {@link JsonNumber#bigValue()} or the primitive accessors.
+     */
     final V value;
 
     // ==== CONSTRUCTORS ===================================================== //
@@ -39,19 +51,132 @@ public abstract sealed class JsonElement<V> permits JsonContainer, JsonPrimitive
 
     @Override
     public final int hashCode() {
-        return Objects.hashCode(value);
+        return valueHashCode();
     }
 
     @Override
     public final boolean equals(Object obj) {
         return obj != null
                 && getClass() == obj.getClass()
-                && Objects.equals(value, ((JsonElement<?>) obj).value);
+                && valueEquals((JsonElement<?>) obj);
+    }
+
+    /** Numbers override this to hash all representations of the same value alike. */
+    int valueHashCode() {
+        return Objects.hashCode(value);
+    }
+
+    /** Numbers override this to compare different representations of the same value. Both have the same class. */
+    boolean valueEquals(JsonElement<?> other) {
+        return Objects.equals(value, other.value);
     }
 
     @Override
     public abstract String toString();
 
+    // ==== WRITING ========================================================== //
+
+    /**
+     * Writes the same json text as {@link #toString()} into a sink in one pass,
+     * without creating the text of any subtree. Deep trees are written iteratively.
+     *
+     * @param out the sink, e.g. a {@link Writer} or {@link StringBuilder}.
+     */
+    public final void writeTo(Appendable out) throws IOException {
+        JsonSerializer.write(this, out);
+    }
+
+    /**
+     * Writes the json text in the format of the options into a sink in one pass.
+     *
+     * @param out the sink, e.g. a {@link Writer} or {@link StringBuilder}.
+     */
+    public final void writeTo(Appendable out, JsonWriteOptions options) throws IOException {
+        JsonSerializer.write(this, options, out);
+    }
+
+    /** Returns the json text in the format of the options, e.g. pretty printed, without parsing it again. */
+    public final String toString(JsonWriteOptions options) {
+        return JsonSerializer.toString(this, options);
+    }
+
+    /** Writes the json text UTF-8 encoded into a stream, which is flushed but not closed. */
+    public final void writeTo(OutputStream out) throws IOException {
+        JsonUtf8Sink.write(this, out);
+    }
+
+    /** Writes the json text UTF-8 encoded into a channel, which is not closed. */
+    public final void writeTo(WritableByteChannel channel) throws IOException {
+        JsonUtf8Sink.write(this, channel);
+    }
+
+    /**
+     * Writes the json text UTF-8 encoded into a buffer.
+     *
+     * @throws BufferOverflowException if the text does not fit into the remaining buffer, which is left unchanged then.
+     */
+    public final void writeTo(ByteBuffer buffer) {
+        JsonUtf8Sink.write(this, buffer);
+    }
+
+    /**
+     * Returns the json text UTF-8 encoded, without creating it as {@link String} first.
+     * The text is encoded into a buffer, that is reused by the thread, so only the returned array is allocated.
+     */
+    public final byte[] toUtf8Bytes() {
+        return JsonUtf8Sink.toBytes(this);
+    }
+
+    /**
+     * Writes the canonical json of RFC 8785 (JCS) into a sink: without whitespace, fields sorted by the UTF-16 code
+     * units of their names, only quotes, backslashes and control characters escaped and numbers written
+     * like JavaScript does. Equal trees are written to the same text, regardless of their field order.
+     *
+     * @param out the sink, e.g. a {@link Writer} or {@link StringBuilder}.
+     * @throws IllegalArgumentException if a string contains an unpaired surrogate or a number is too big for a double.
+     */
+    public final void writeCanonical(Appendable out) throws IOException {
+        JsonSerializer.write(this, JsonWriteOptions.CANONICAL, out);
+    }
+
+    /**
+     * Writes the canonical json UTF-8 encoded into a stream in chunks, which is flushed but not closed.
+     *
+     * @throws IllegalArgumentException if a string contains an unpaired surrogate or a number is too big for a double.
+     * @see #writeCanonical(Appendable)
+     */
+    public final void writeCanonical(OutputStream out) throws IOException {
+        JsonUtf8Sink.writeChunked(this, JsonWriteOptions.CANONICAL, out::write);
+        out.flush();
+    }
+
+    /**
+     * Returns the hash of the UTF-8 encoded canonical json of this tree, e.g. to deduplicate or sign documents.
+     * The bytes are fed into the digest in small chunks, while the tree is walked once,
+     * so neither the text nor its bytes are ever held as a whole. The digest is reset afterward.
+     *
+     * @param digest the digest, e.g. {@code MessageDigest.getInstance("SHA-256")}.
+     * @throws IllegalArgumentException if a string contains an unpaired surrogate or a number is too big for a double.
+     * @see #writeCanonical(Appendable)
+     */
+    public final byte[] contentHash(MessageDigest digest) {
+        try {
+            JsonUtf8Sink.writeChunked(this, JsonWriteOptions.CANONICAL, digest::update);
+        } catch (IOException e) { // Never thrown by a digest
+            throw new UncheckedIOException(e);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Returns the amount of characters and UTF-8 bytes of the json text, without creating it.
+     * The size of unchanged containers is cached, so that the text can be written into buffers of the exact size,
+     * e.g. by {@link #toUtf8Bytes()}, or sent with a known content length.
+     */
+    public final JsonSize serializedSize() {
+        return JsonSizeCounter.measure(this);
+    }
+
     // ==== GETTERS ========================================================== //
 
     public final boolean findPath(String jsonPath) {
@@ -75,26 +200,26 @@ public abstract sealed class JsonElement<V> permits JsonContainer, JsonPrimitive
         return tryGetAsNumber().map(Number::shortValue);
     }
 
+    @SuppressWarnings("InstanceofThis")
     public final OptionalInt tryGetAsInt() {
-        var nr = tryGetAsNumber();
-        return nr.map(Number::intValue).map(OptionalInt::of)
-                .orElseGet(OptionalInt::empty);
+        return this instanceof JsonNumber<?> jNr
+               ? OptionalInt.of(jNr.intValue()) : OptionalInt.empty();
     }
 
+    @SuppressWarnings("InstanceofThis")
     public final OptionalLong tryGetAsLong() {
-        var nr = tryGetAsNumber();
-        return nr.map(Number::longValue).map(OptionalLong::of)
-                .orElseGet(OptionalLong::empty);
+        return this instanceof JsonNumber<?> jNr
+               ? OptionalLong.of(jNr.longValue()) : OptionalLong.empty();
     }
 
     public final Optional<Float> tryGetAsFloat() {
         return tryGetAsNumber().map(Number::floatValue);
     }
 
+    @SuppressWarnings("InstanceofThis")
     public final OptionalDouble tryGetAsDouble() {
-        var nr = tryGetAsNumber();
-        return nr.map(number -> OptionalDouble.of(number.doubleValue()))
-                .orElseGet(OptionalDouble::empty);
+        return this instanceof JsonNumber<?> jNr
+               ? OptionalDouble.of(jNr.doubleValue()) : OptionalDouble.empty();
     }
 
     @SuppressWarnings("InstanceofThis")
@@ -111,11 +236,8 @@ public abstract sealed class JsonElement<V> permits JsonContainer, JsonPrimitive
     // ==== OBJECT =========================================================== //
 
     public final Optional<Number> tryGetAsNumber() {
-        return switch (this) {
-            case JsonInteger jInt -> Optional.of(jInt.value);
-            case JsonDecimal jDec -> Optional.of(jDec.value);
-            default -> Optional.empty();
-        };
+        return this instanceof JsonNumber<?> jNr
+               ? Optional.of(jNr.bigValue()) : Optional.empty();
     }
 
     @SuppressWarnings("InstanceofThis")
@@ -127,14 +249,14 @@ public abstract sealed class JsonElement<V> permits JsonContainer, JsonPrimitive
     @SuppressWarnings("InstanceofThis")
     public final Optional<BigInteger> tryGetAsBigInt() {
         return this instanceof JsonInteger j
-               ? Optional.of(j.value) : Optional.empty();
+               ? Optional.of(j.bigValue()) : Optional.empty();
     }
 
     @SuppressWarnings("ClassReferencesSubclass")
     public final Optional<BigDecimal> tryGetAsBigDec() {
         return switch (this) {
-            case JsonDecimal j -> Optional.of(j.value);
-            case JsonInteger j -> Optional.of(new BigDecimal(j.value));
+            case JsonDecimal j -> Optional.of(j.bigValue());
+            case JsonInteger j -> Optional.of(new BigDecimal(j.bigValue()));
             default -> Optional.empty();
         };
     }
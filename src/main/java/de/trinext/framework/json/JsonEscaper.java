@@ -0,0 +1,131 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Escapes keys and string values for the json text, exactly like gson does without html escaping.
+ * <p>
+ * Each character is checked with a lookup table. Runs of characters, that need no escape,
+ * are written to the sink as a whole, so a string without any escapes is appended untouched in one call.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonEscaper {
+
+    /** The escape of each ascii character or null, if it is written as it is. */
+    private static final String[] ASCII_ESCAPES = new String[128];
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    static {
+        for (var c = 0; c < 0x20; c++)
+            ASCII_ESCAPES[c] = String.format("\\u%04x", c);
+        ASCII_ESCAPES['"'] = "\\\"";
+        ASCII_ESCAPES['\\'] = "\\\\";
+        ASCII_ESCAPES['\t'] = "\\t";
+        ASCII_ESCAPES['\b'] = "\\b";
+        ASCII_ESCAPES['\n'] = "\\n";
+        ASCII_ESCAPES['\r'] = "\\r";
+        ASCII_ESCAPES['\f'] = "\\f";
+    }
+
+    private JsonEscaper() {
+        throw new AssertionError();
+    }
+
+    /** Returns the escape of a character or null, if it is written as it is. */
+    static String escapeOf(char c) {
+        if (c < 128)
+            return ASCII_ESCAPES[c];
+        if (c == '\u2028')
+            return "\\u2028";
+        if (c == '\u2029')
+            return "\\u2029";
+        return null;
+    }
+
+    /** Returns the index of the first character, that needs an escape, or -1. */
+    private static int firstEscape(CharSequence str) {
+        for (var i = 0; i < str.length(); i++)
+            if (escapeOf(str.charAt(i)) != null)
+                return i;
+        return -1;
+    }
+
+    // ==== ESCAPING ========================================================= //
+
+    /** Returns the string quoted and escaped. */
+    static String quote(String str) {
+        if (firstEscape(str) < 0)
+            return '"' + str + '"';
+        var sb = new StringBuilder(str.length() + 16);
+        try {
+            write(str, sb);
+        } catch (IOException e) { // Never thrown by a StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /** Writes the string quoted and escaped. */
+    static void write(CharSequence str, Appendable out) throws IOException {
+        write(str, out, false);
+    }
+
+    /**
+     * Writes the string quoted and escaped.
+     *
+     * @param asciiOnly whether all characters beyond ascii are escaped as well.
+     */
+    static void write(CharSequence str, Appendable out, boolean asciiOnly) throws IOException {
+        out.append('"');
+        var unescaped = 0;
+        for (var i = 0; i < str.length(); i++) {
+            var c = str.charAt(i);
+            var escape = escapeOf(c);
+            if (escape != null) {
+                out.append(str, unescaped, i).append(escape);
+                unescaped = i + 1;
+            } else if (asciiOnly && c >= 0x80) {
+                out.append(str, unescaped, i).append("\\u")
+                        .append(HEX_DIGITS[c >> 12]).append(HEX_DIGITS[c >> 8 & 0xF])
+                        .append(HEX_DIGITS[c >> 4 & 0xF]).append(HEX_DIGITS[c & 0xF]);
+                unescaped = i + 1;
+            }
+        }
+        if (unescaped == 0)
+            out.append(str);
+        else
+            out.append(str, unescaped, str.length());
+        out.append('"');
+    }
+
+    /**
+     * Writes the string quoted and escaped as required for canonical json by RFC 8785:
+     * only quotes, backslashes and control characters are escaped.
+     *
+     * @throws IllegalArgumentException if the string contains an unpaired surrogate, which has no UTF-8 encoding.
+     */
+    static void writeCanonical(CharSequence str, Appendable out) throws IOException {
+        out.append('"');
+        var unescaped = 0;
+        for (var i = 0; i < str.length(); i++) {
+            var c = str.charAt(i);
+            if (c < 128) {
+                var escape = ASCII_ESCAPES[c];
+                if (escape != null) {
+                    out.append(str, unescaped, i).append(escape);
+                    unescaped = i + 1;
+                }
+            } else if (Character.isSurrogate(c) && !JsonUtf8Sink.isPair(str, i))
+                throw new IllegalArgumentException("Unpaired surrogate at index " + i + " of a string");
+        }
+        if (unescaped == 0)
+            out.append(str);
+        else
+            out.append(str, unescaped, str.length());
+        out.append('"');
+    }
+
+}
\ No newline at end of file
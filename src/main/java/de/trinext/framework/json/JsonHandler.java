@@ -0,0 +1,66 @@
+package de.trinext.framework.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Receives the events of a json document while it is parsed, without any {@link JsonElement}s being created.
+ * <p>
+ * All callbacks do nothing by default, so only the needed ones have to be implemented.
+ * Names and strings are passed as {@link CharSequence}s, that are only valid during the callback.
+ *
+ * @author Dennis Woithe
+ * @see Json#parse(String, JsonHandler)
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public interface JsonHandler {
+
+    /** Called for the opening brace of an object. */
+    default void startObject() { }
+
+    /** Called for the closing brace of an object. */
+    default void endObject() { }
+
+    /** Called for the opening bracket of an array. */
+    default void startArray() { }
+
+    /** Called for the closing bracket of an array. */
+    default void endArray() { }
+
+    /** Called for the name of an object field, right before its value. */
+    default void key(CharSequence key) { }
+
+    /** Called for a string value. */
+    default void value(CharSequence value) { }
+
+    /** Called for an integer value, that fits into a long. */
+    default void value(long value) { }
+
+    /** Called for a decimal value, unless {@link #exactDecimals()} is true. */
+    default void value(double value) { }
+
+    /** Called for an integer value, that does not fit into a long. Delegates to {@link #value(double)} by default. */
+    default void value(BigInteger value) {
+        value(value.doubleValue());
+    }
+
+    /** Called for a decimal value, if {@link #exactDecimals()} is true. Delegates to {@link #value(double)} by default. */
+    default void value(BigDecimal value) {
+        value(value.doubleValue());
+    }
+
+    /** Called for a boolean value. */
+    default void value(boolean value) { }
+
+    /** Called for a null value. */
+    default void nullValue() { }
+
+    /**
+     * Whether decimals should be passed without loss of precision to {@link #value(BigDecimal)}
+     * instead of being parsed to a double for {@link #value(double)}.
+     */
+    default boolean exactDecimals() {
+        return false;
+    }
+
+}
\ No newline at end of file
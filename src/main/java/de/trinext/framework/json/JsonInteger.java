@@ -4,6 +4,9 @@ import java.math.BigInteger;
 
 /**
  * The json representation of a potentially infinitely big integer.
+ * <p>
+ * Integers, that fit into a long, are also held as long, so they are compared, hashed and written without
+ * their {@link BigInteger}. Parsed integers only create it, when it is asked for.
  *
  * @author Dennis Woithe
  * @see BigInteger java equivalent
@@ -11,10 +14,32 @@ import java.math.BigInteger;
 @SuppressWarnings({"unused", "WeakerAccess", "OverloadedMethodsWithSameNumberOfParameters"})
 public final class JsonInteger extends JsonNumber<BigInteger> {
 
+    private final boolean fitsLong;
+    /** The value, if it fits into a long. */
+    private final long asLong;
+    /** The value of bigger integers, otherwise created by {@link #bigValue()}. Racy, but it is always the same value. */
+    private BigInteger bigValue;
+
     // ==== CONSTRUCTORS ===================================================== //
 
+    /** Creates an integer fitting into a long, whose {@link BigInteger} is created when asked for, if it is null. */
+    private JsonInteger(long value, BigInteger bigValue) {
+        super(bigValue);
+        fitsLong = true;
+        asLong = value;
+        this.bigValue = bigValue;
+    }
+
     private JsonInteger(BigInteger value) {
         super(value);
+        fitsLong = false;
+        asLong = 0;
+        bigValue = value;
+    }
+
+    /** Creates a parsed integer, which only creates its {@link BigInteger}, when it is asked for. */
+    static JsonInteger parsed(long value) {
+        return new JsonInteger(value, null);
     }
 
     public static JsonInteger from(byte value) {
@@ -22,11 +47,11 @@ public final class JsonInteger extends JsonNumber<BigInteger> {
     }
 
     public static JsonInteger from(long value) {
-        return from(BigInteger.valueOf(value));
+        return new JsonInteger(value, BigInteger.valueOf(value));
     }
 
     public static JsonInteger from(BigInteger value) {
-        return new JsonInteger(value);
+        return value.bitLength() < Long.SIZE ? new JsonInteger(value.longValue(), value) : new JsonInteger(value);
     }
 
     public static JsonInteger from(short value) {
@@ -37,9 +62,60 @@ public final class JsonInteger extends JsonNumber<BigInteger> {
         return from((long) value);
     }
 
+    // ==== METHODS ========================================================== //
+
+    /** Whether the integer fits into a long and thus is held as one. */
+    boolean fitsLong() {
+        return fitsLong;
+    }
+
+    @Override
+    BigInteger bigValue() {
+        var res = bigValue;
+        if (res == null)
+            bigValue = res = BigInteger.valueOf(asLong);
+        return res;
+    }
+
+    @Override
+    int intValue() {
+        return fitsLong ? (int) asLong : bigValue.intValue();
+    }
+
+    @Override
+    long longValue() {
+        return fitsLong ? asLong : bigValue.longValue();
+    }
+
+    @Override
+    double doubleValue() {
+        return fitsLong ? asLong : bigValue.doubleValue();
+    }
+
+    /** Computes {@link BigInteger#hashCode()} of longs without creating the {@link BigInteger}. */
+    @Override
+    int valueHashCode() {
+        if (!fitsLong)
+            return bigValue.hashCode();
+        var magnitude = Math.abs(asLong); // Long.MIN_VALUE stays correct as unsigned magnitude
+        var high = (int) (magnitude >>> 32);
+        var low = (int) magnitude;
+        var res = high == 0 ? low : 31 * high + low;
+        return res * Long.signum(asLong);
+    }
+
+    /** Only compares the same representations, since a value is held as long, whenever it fits. */
+    @Override
+    boolean valueEquals(JsonElement<?> other) {
+        var otherInt = (JsonInteger) other;
+        return fitsLong
+               ? otherInt.fitsLong && asLong == otherInt.asLong
+               : !otherInt.fitsLong && bigValue.equals(otherInt.bigValue);
+    }
+
     @Override
     public String toString() {
-        return value.toString(10);
+        return fitsLong ? Long.toString(asLong) : bigValue.toString();
     }
 
 }
\ No newline at end of file
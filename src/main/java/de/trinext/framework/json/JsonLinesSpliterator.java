@@ -0,0 +1,217 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits UTF-8 encoded newline-delimited json (NDJSON / JSON Lines) into one value per line,
+ * e.g. a {@link JsonElement} or an instance bound by a class.
+ * <p>
+ * The stream is read into a single buffer, that is reused for all lines, and each line is parsed right from it.
+ * Blank lines are skipped and a carriage return before the newline is ignored as whitespace.
+ * <p>
+ * When used in a parallel stream, a split takes all complete lines of the filled buffer.
+ * A split of an already read part can be split again on the newline closest to its middle.
+ *
+ * @param <T> the type of the value of each line.
+ * @author Dennis Woithe
+ */
+final class JsonLinesSpliterator<T> implements Spliterator<T> {
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    /** Parses one line from the buffer. */
+    @FunctionalInterface
+    interface LineParser<T> {
+
+        T parse(byte[] utf8Json, int offset, int length);
+
+    }
+
+    /** Parses each line into a tree. */
+    static final LineParser<JsonElement<?>> TREES = (utf8Json, offset, length) ->
+            new JsonBytesParser(utf8Json, offset, length).parse();
+
+    private final LineParser<? extends T> parser;
+
+    /** The source of further lines or null if the buffer holds all lines of this spliterator. */
+    private final InputStream in;
+
+    private byte[] buffer;
+
+    /** The index of the next unparsed byte in the buffer. */
+    private int pos;
+
+    /** The index behind the last read byte in the buffer. */
+    private int limit;
+
+    /** The index up to which the buffer was already searched for a newline. */
+    private int scanned;
+
+    /** The number of the line before the next line, for error messages. */
+    private long lineNumber;
+
+    JsonLinesSpliterator(InputStream in, LineParser<? extends T> parser) {
+        this(parser, in, new byte[INITIAL_BUFFER_SIZE], 0, 0, 0);
+    }
+
+    private JsonLinesSpliterator(
+            LineParser<? extends T> parser, InputStream in, byte[] buffer, int pos, int limit, long lineNumber
+    ) {
+        this.parser = parser;
+        this.in = in;
+        this.buffer = buffer;
+        this.pos = pos;
+        this.limit = limit;
+        this.scanned = pos;
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (true) {
+            var lineEnd = nextLineEnd();
+            if (lineEnd < 0)
+                return false;
+            var lineStart = pos;
+            pos = scanned = Math.min(lineEnd + 1, limit);
+            lineNumber++;
+            if (lineNumber == 1)
+                lineStart = skipByteOrderMark(lineStart, lineEnd);
+            if (!isBlank(lineStart, lineEnd)) {
+                action.accept(parseLine(lineStart, lineEnd));
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (in == null) {
+            // Split the already read lines at the newline closest to the middle
+            var mid = indexOfNewline(pos + (limit - pos) / 2, limit);
+            if (mid < 0 || mid + 1 >= limit)
+                return null;
+            var prefix = new JsonLinesSpliterator<T>(parser, null, buffer, pos, mid + 1, lineNumber);
+            lineNumber += countNewlines(pos, mid + 1);
+            pos = scanned = mid + 1;
+            return prefix;
+        }
+        // Hand out all complete lines of the buffer
+        if (nextLineEnd() < 0)
+            return null;
+        var batchEnd = lastIndexOfNewline(scanned, limit) + 1;
+        if (batchEnd <= pos)
+            batchEnd = limit; // The last line of the stream without a trailing newline
+        var batch = new JsonLinesSpliterator<T>(
+                parser, null, Arrays.copyOfRange(buffer, pos, batchEnd), 0, batchEnd - pos, lineNumber
+        );
+        lineNumber += countNewlines(pos, batchEnd);
+        pos = scanned = batchEnd;
+        return batch;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    // ==== LINES ============================================================ //
+
+    /**
+     * Returns the index of the newline ending the next line, the limit for a last line without a newline
+     * or -1 if there are no more lines. Reads from the stream until a whole line is in the buffer.
+     */
+    private int nextLineEnd() {
+        while (true) {
+            var newline = indexOfNewline(scanned, limit);
+            if (newline >= 0)
+                return newline;
+            scanned = limit;
+            if (!fill())
+                return pos < limit ? limit : -1;
+        }
+    }
+
+    /** Reads more bytes into the buffer, moving the unparsed bytes to the front. Returns false at the end of input. */
+    private boolean fill() {
+        if (in == null)
+            return false;
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            scanned -= pos;
+            pos = 0;
+        }
+        if (limit == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        try {
+            var read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0)
+                return false;
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Parses a line, that must not result in null, since the stream has no null elements. */
+    private T parseLine(int lineStart, int lineEnd) {
+        T res;
+        try {
+            res = parser.parse(buffer, lineStart, lineEnd - lineStart);
+        } catch (JsonParseException | com.google.gson.JsonParseException | IllegalStateException e) {
+            throw new JsonParseException("Invalid json in line " + lineNumber, e);
+        }
+        if (res == null)
+            throw new JsonParseException("Invalid json in line " + lineNumber + ": it binds to null");
+        return res;
+    }
+
+    private int skipByteOrderMark(int lineStart, int lineEnd) {
+        return lineEnd - lineStart >= 3
+               && buffer[lineStart] == (byte) 0xEF && buffer[lineStart + 1] == (byte) 0xBB && buffer[lineStart + 2] == (byte) 0xBF
+               ? lineStart + 3
+               : lineStart;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (var i = from; i < to; i++)
+            if (buffer[i] != ' ' && buffer[i] != '\t' && buffer[i] != '\r')
+                return false;
+        return true;
+    }
+
+    private int indexOfNewline(int from, int to) {
+        for (var i = from; i < to; i++)
+            if (buffer[i] == '\n')
+                return i;
+        return -1;
+    }
+
+    private int lastIndexOfNewline(int from, int to) {
+        for (var i = to - 1; i >= from; i--)
+            if (buffer[i] == '\n')
+                return i;
+        return -1;
+    }
+
+    private int countNewlines(int from, int to) {
+        var res = 0;
+        for (var i = from; i < to; i++)
+            if (buffer[i] == '\n')
+                res++;
+        return res;
+    }
+
+}
\ No newline at end of file
@@ -72,11 +72,17 @@ public final class JsonList
         addAll(elems);
     }
 
+    /** Creates a list, whose elements are only created when accessed. */
+    JsonList(JsonTape tape, int listIdx) {
+        super(new JsonTapeList(tape, listIdx));
+    }
+
 
     // ==== METHODS ========================================================== //
 
     public JsonList add(Object elem) {
         value.add(Json.treeFromInstance(elem));
+        invalidate();
         return this;
     }
 
@@ -194,16 +200,33 @@ public final class JsonList
     }
 
     public boolean removeAt(int idx) {
-        return value.remove(idx) != null;
+        var removed = value.remove(idx);
+        invalidate();
+        detach(removed);
+        return removed != null;
     }
 
     public void clear() {
+        var removed = new ArrayList<JsonContainer<?>>();
+        addCreatedContainers(removed);
         value.clear();
+        invalidate();
+        removed.forEach(JsonContainer::detach);
+    }
+
+    @Override
+    void addCreatedContainers(Collection<JsonContainer<?>> out) {
+        if (value instanceof JsonTapeList tapeList)
+            tapeList.addCreatedContainers(out);
+        else
+            for (var elem : value)
+                if (elem instanceof JsonContainer<?> container)
+                    out.add(container);
     }
 
     @Override
     public Iterator<JsonElement<?>> iterator() {
-        return value.iterator();
+        return tracked(value.iterator());
     }
 
     public Stream<JsonElement<?>> stream() {
@@ -212,7 +235,7 @@ public final class JsonList
 
     @Override
     public String toString() {
-        return value.toString();
+        return JsonSerializer.toString(this);
     }
 
 }
\ No newline at end of file
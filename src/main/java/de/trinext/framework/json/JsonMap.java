@@ -3,7 +3,6 @@ package de.trinext.framework.json;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -31,6 +30,11 @@ public final class JsonMap
         super(new LinkedHashMap<>(fields));
     }
 
+    /** Creates a JsonObject, whose fields are only created when accessed. */
+    JsonMap(JsonTape tape, int mapIdx) {
+        super(new JsonTapeMap(tape, mapIdx));
+    }
+
     /**
      * Add a JsonObject as a field.
      *
@@ -52,6 +56,7 @@ public final class JsonMap
         if (value.containsKey(Objects.requireNonNull(fieldName)))
             throw new JsonFieldAlreadyExistsException(fieldName);
         value.put(fieldName, Json.treeFromInstance(fieldValue));
+        invalidate();
         return this;
     }
 
@@ -62,7 +67,12 @@ public final class JsonMap
     }
 
     public boolean removeKey(String key) {
-        return value.remove(key) != null;
+        var removed = value.remove(key);
+        if (removed == null)
+            return false;
+        invalidate();
+        detach(removed);
+        return true;
     }
 
     public JsonMap addList(String key, Object... values) throws JsonFieldAlreadyExistsException {
@@ -107,19 +117,42 @@ public final class JsonMap
 
     @Override
     public String toString() {
-        return value.entrySet()
-                .stream()
-                .map(entry -> "\"" + entry.getKey() + "\":" + entry.getValue())
-                .collect(Collectors.joining(", ", "{", "}"));
+        return JsonSerializer.toString(this);
+    }
+
+    @Override
+    void addCreatedContainers(Collection<JsonContainer<?>> out) {
+        if (value instanceof JsonTapeMap tapeMap)
+            tapeMap.addCreatedContainers(out);
+        else
+            for (var elem : value.values())
+                if (elem instanceof JsonContainer<?> container)
+                    out.add(container);
     }
 
     public Stream<Entry<String, JsonElement<?>>> stream() {
-        return value.entrySet().stream();
+        return value.entrySet().stream().map(this::tracked);
     }
 
     @Override
     public Iterator<Entry<String, JsonElement<?>>> iterator() {
-        return value.entrySet().iterator();
+        var it = tracked(value.entrySet().iterator());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry<String, JsonElement<?>> next() {
+                return tracked(it.next());
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+            }
+        };
     }
 
     public Optional<JsonElement<?>> tryGet(String fieldName) {
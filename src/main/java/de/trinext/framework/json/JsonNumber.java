@@ -3,8 +3,6 @@ package de.trinext.framework.json;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
-import com.google.gson.JsonElement;
-
 /**
  * The classification for any {@link JsonElement} that represents a number.
  *
@@ -19,8 +17,18 @@ public abstract sealed class JsonNumber<N extends Number>
         permits JsonInteger, JsonDecimal
 {
 
+    /** The biggest integer, up to which all integers are exact as double. */
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    /** The length of {@link #toString()} or 0, until it is measured. Racy, but it is always the same length. */
+    private int textLength;
+
     // ==== CONSTRUCTORS ===================================================== //
 
+    /**
+     * Numbers also hold their value as long or double, whenever that is exact.
+     * Parsed numbers pass null then, so their value of type {@code N} is only created by {@link #bigValue()}.
+     */
     JsonNumber(N value) {
         super(value);
     }
@@ -39,4 +47,46 @@ public abstract sealed class JsonNumber<N extends Number>
         };
     }
 
+    // ==== METHODS ========================================================== //
+
+    /** The value as {@code N}, which is created on the first call for parsed numbers held as long or double. */
+    abstract N bigValue();
+
+    /** The value like {@link Number#intValue()} of {@link #bigValue()}, but without creating it. */
+    abstract int intValue();
+
+    /** The value like {@link Number#longValue()} of {@link #bigValue()}, but without creating it. */
+    abstract long longValue();
+
+    /** The value like {@link Number#doubleValue()} of {@link #bigValue()}, but without creating it. */
+    abstract double doubleValue();
+
+    /** The length of {@link #toString()}, which is only rendered on the first call. */
+    final int textLength() {
+        var res = textLength;
+        if (res == 0)
+            textLength = res = toString().length();
+        return res;
+    }
+
+    // ==== CANONICAL ======================================================== //
+
+    /**
+     * Returns the number as required for canonical json by RFC 8785, which only knows doubles:
+     * integers up to 2^53 are exact, all other numbers are rounded to a double and written like JavaScript does.
+     *
+     * @throws IllegalArgumentException if the number is too big for a double.
+     */
+    final String toCanonicalString() {
+        if (this instanceof JsonInteger integer && integer.fitsLong()) {
+            var l = integer.longValue();
+            if (l >= -MAX_EXACT_INTEGER && l <= MAX_EXACT_INTEGER)
+                return Long.toString(l);
+        }
+        var d = doubleValue();
+        if (!Double.isFinite(d))
+            throw new IllegalArgumentException("The number " + this + " is too big for canonical json");
+        return JsonDecimal.toCanonicalString(d);
+    }
+
 }
\ No newline at end of file
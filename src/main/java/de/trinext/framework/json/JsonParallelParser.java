@@ -0,0 +1,88 @@
+package de.trinext.framework.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Parses a big top-level array on all cores of the common {@link ForkJoinPool}.
+ * <p>
+ * A structural pass, that only tracks strings and the nesting depth, finds commas between top-level elements.
+ * The array is split on them into chunks of roughly equal length, which are validated and parsed concurrently.
+ * The elements of all chunks are then joined in their original order.
+ * Inputs below the threshold or documents, that are not an array, are parsed on the calling thread.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonParallelParser {
+
+    /** The input length (in chars or bytes), from which on arrays are parsed in parallel by default. */
+    static final int DEFAULT_THRESHOLD = 1 << 20;
+
+    /** Chunks are never shorter than this, so the parsing outweighs the cost of scheduling it. */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    /** The amount of chunks per core, so that cores that finish early can take over work. */
+    private static final int CHUNKS_PER_CORE = 4;
+
+    private JsonParallelParser() { throw new AssertionError(); }
+
+    static JsonElement<?> parse(JsonSourceParser source, int threshold) {
+        if (source.end - source.pos < threshold || source.peekNonWhitespace() != '[')
+            return source.parse();
+        var arrayStart = source.pos + 1;
+        var chunkLength = Math.max(
+                MIN_CHUNK_LENGTH,
+                (source.end - arrayStart) / (ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_CORE)
+        );
+        var bounds = splitArray(source, arrayStart, chunkLength);
+        var arrayEnd = bounds.getLast();
+        if (bounds.size() == 2 && source.slice(arrayStart, arrayEnd).skipWhitespace() == arrayEnd)
+            return new JsonList();
+        // Chunk i lies between the bounds i and i + 1, which are commas except for the first and last
+        var chunks = IntStream.range(0, bounds.size() - 1)
+                .parallel()
+                .mapToObj(i -> source.slice(i == 0 ? arrayStart : bounds.get(i) + 1, bounds.get(i + 1)).parseElements())
+                .toList();
+        var res = new JsonList();
+        chunks.forEach(res.value::addAll);
+        return res;
+    }
+
+    /**
+     * Finds the commas, on which the array starting at the passed index gets split, and its closing bracket.
+     *
+     * @return the start of the array, the commas and the index of the closing bracket.
+     */
+    private static List<Integer> splitArray(JsonSourceParser source, int arrayStart, int chunkLength) {
+        var res = new ArrayList<Integer>();
+        res.add(arrayStart);
+        var depth = 0;
+        source.pos = arrayStart;
+        while (source.pos < source.end) {
+            var c = source.at(source.pos++);
+            switch (c) {
+                case '"' -> source.skipString();
+                case '[', '{' -> depth++;
+                case ']', '}' -> {
+                    if (depth-- == 0) {
+                        if (c != ']')
+                            throw source.unexpected(c, "',' or ']'");
+                        res.add(source.pos - 1);
+                        if (source.skipWhitespace() < source.end)
+                            throw source.error("Unexpected trailing character '" + (char) source.at(source.pos) + "'");
+                        return res;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 0 && source.pos - 1 - res.getLast() >= chunkLength)
+                        res.add(source.pos - 1);
+                }
+                default -> { }
+            }
+        }
+        throw source.error("Unexpected end of input");
+    }
+
+}
\ No newline at end of file
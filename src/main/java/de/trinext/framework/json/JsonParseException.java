@@ -0,0 +1,44 @@
+package de.trinext.framework.json;
+
+/**
+ * Gets thrown when a json input source is not valid json.
+ *
+ * @author Dennis Woithe
+ */
+@SuppressWarnings({"SerializableHasSerializationMethods", "UncheckedExceptionClass"})
+public class JsonParseException extends RuntimeException {
+
+    /** The message without the position. */
+    private final String reason;
+
+    /** The position of the error in the input, or -1 if unknown. */
+    private final long position;
+
+    JsonParseException(String message) {
+        super(message);
+        reason = message;
+        position = -1;
+    }
+
+    JsonParseException(String message, long position) {
+        super(message + " at position " + position);
+        reason = message;
+        this.position = position;
+    }
+
+    JsonParseException(String message, RuntimeException cause) {
+        super(message + ": " + cause.getMessage(), cause);
+        reason = getMessage();
+        position = -1;
+    }
+
+    /** Returns this error with its position moved by the offset, for input parsed in parts. */
+    JsonParseException shifted(long offset) {
+        if (position < 0 || offset == 0)
+            return this;
+        var res = new JsonParseException(reason, position + offset);
+        res.setStackTrace(getStackTrace());
+        return res;
+    }
+
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package de.trinext.framework.json;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -35,6 +37,15 @@ class JsonPathFinder {
 
     // ==== METHODS ========================================================== //
 
+    /** Splits a path into its keys, indexes and stars. */
+    static List<JsonPathElem> split(String jsonPath) {
+        var pathIterator = new JsonPathFinder(new JsonMap(), jsonPath, THROW_PATH_FORMAT_EXCPT).pathIterator;
+        var res = new ArrayList<JsonPathElem>();
+        while (pathIterator.hasNext())
+            res.add(pathIterator.read());
+        return res;
+    }
+
     private boolean hasFlag(int flag) {
         return (throwFlags & flag) != 0;
     }
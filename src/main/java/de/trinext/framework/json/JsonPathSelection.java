@@ -0,0 +1,200 @@
+package de.trinext.framework.json;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses only the parts of a json document, that lie on a set of paths in the syntax of {@link JsonPathFinder}.
+ * <p>
+ * The paths are merged into a tree of path elements. While parsing, values of objects and arrays,
+ * that are not on any of the paths, are only validated and skipped, without creating anything or decoding strings.
+ * Values at the end of a path are parsed completely. Objects and arrays on the way to them are kept,
+ * even if they end up empty, while primitives, that a path would have to go through, are left out.
+ * <p>
+ * Like in {@link JsonPathFinder}, a star stands for all elements of an array and any path element is a key in an object.
+ * If an array is filtered by indexes, the skipped elements before the last selected index are kept as null,
+ * so that the selected elements keep their index.
+ * A path element marked strict with {@code !} has to be present, otherwise parsing fails.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonPathSelection {
+
+    private static final String STAR = "*";
+
+    private final Map<String, JsonPathSelection> children = new HashMap<>();
+
+    /** The keys and indexes of the children marked strict, which have to be present. */
+    private final Set<String> required = new HashSet<>();
+
+    /** Whether a path ends here, so the whole value is kept. */
+    private boolean keepAll;
+
+    /** The highest index, that selects an array element or -1. */
+    private int maxIndex = -1;
+
+    private JsonPathSelection() { }
+
+    /** Merges the paths into one selection. */
+    static JsonPathSelection of(String... jsonPaths) {
+        var res = new JsonPathSelection();
+        for (var jsonPath : jsonPaths) {
+            var node = res;
+            for (var pathElem : JsonPathFinder.split(jsonPath)) {
+                if (pathElem.isStrict() && !STAR.equals(pathElem.getAsKey()))
+                    node.required.add(pathElem.getAsKey());
+                node = node.child(pathElem.getAsKey());
+            }
+            node.keepAll = true;
+        }
+        res.mergeStars();
+        return res;
+    }
+
+    private JsonPathSelection child(String pathElem) {
+        if (isIndex(pathElem))
+            maxIndex = Math.max(maxIndex, Integer.parseInt(pathElem));
+        return children.computeIfAbsent(pathElem, ignored -> new JsonPathSelection());
+    }
+
+    /** Adds everything, that is selected by a star, to the selections of single indexes too. */
+    private void mergeStars() {
+        var star = children.get(STAR);
+        for (var entry : children.entrySet()) {
+            if (star != null && isIndex(entry.getKey()))
+                entry.getValue().merge(star);
+            entry.getValue().mergeStars();
+        }
+    }
+
+    private void merge(JsonPathSelection other) {
+        keepAll |= other.keepAll;
+        required.addAll(other.required);
+        for (var entry : other.children.entrySet())
+            child(entry.getKey()).merge(entry.getValue());
+    }
+
+    private static boolean isIndex(String pathElem) {
+        return !pathElem.isEmpty() && pathElem.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    // ==== PARSING ========================================================== //
+
+    /** Parses the selected parts of the whole input of the parser. */
+    JsonElement<?> parse(JsonSourceParser source) {
+        var rootStart = source.pos;
+        var res = select(source);
+        if (res == null) // A primitive root is kept as a whole
+            res = source.parseValueAt(rootStart);
+        if (source.skipWhitespace() < source.end)
+            throw source.error("Unexpected trailing character '" + (char) source.at(source.pos) + "'");
+        return res;
+    }
+
+    /** Parses the selected parts of the next value or skips it and returns null, if nothing of it is selected. */
+    private JsonElement<?> select(JsonSourceParser source) {
+        if (keepAll)
+            return source.parseValueAt(source.pos);
+        var c = source.peekNonWhitespace();
+        if (c == '{')
+            return selectFields(source);
+        if (c == '[')
+            return selectElements(source);
+        if (!required.isEmpty())
+            throw missing(source, required);
+        source.skipValue();
+        return null;
+    }
+
+    private static JsonParseException missing(JsonSourceParser source, Collection<String> missing) {
+        return missing(source, missing.iterator().next());
+    }
+
+    private static JsonParseException missing(JsonSourceParser source, String missing) {
+        return source.error("Could not find \"!" + missing + "\"");
+    }
+
+    private JsonMap selectFields(JsonSourceParser source) {
+        var res = new JsonMap();
+        var missing = required.isEmpty() ? null : new HashSet<>(required);
+        source.pos++;
+        if (source.peekNonWhitespace() == '}') {
+            source.pos++;
+            if (missing != null)
+                throw missing(source, missing);
+            return res;
+        }
+        while (true) {
+            var c = source.nextNonWhitespace();
+            if (c != '"')
+                throw source.unexpected(c, "'\"'");
+            var keyStart = source.pos;
+            source.skipString();
+            c = source.nextNonWhitespace();
+            if (c != ':')
+                throw source.unexpected(c, "':'");
+            String key = null;
+            for (var childKey : children.keySet())
+                if (source.stringEquals(keyStart, childKey)) {
+                    key = childKey;
+                    break;
+                }
+            if (key == null)
+                source.skipValue();
+            else {
+                if (missing != null)
+                    missing.remove(key);
+                var value = children.get(key).select(source);
+                if (value != null)
+                    res.value.put(key, value);
+            }
+            c = source.nextNonWhitespace();
+            if (c == '}') {
+                if (missing != null && !missing.isEmpty())
+                    throw missing(source, missing);
+                return res;
+            }
+            if (c != ',')
+                throw source.unexpected(c, "',' or '}'");
+        }
+    }
+
+    private JsonList selectElements(JsonSourceParser source) {
+        var res = new JsonList();
+        source.pos++;
+        if (source.peekNonWhitespace() == ']') {
+            source.pos++;
+            requireIndexesBelow(source, 0);
+            return res;
+        }
+        var star = children.get(STAR);
+        for (var idx = 0; ; idx++) {
+            var selection = idx <= maxIndex ? children.getOrDefault(Integer.toString(idx), star) : star;
+            var value = selection == null ? null : selection.select(source);
+            if (selection == null)
+                source.skipValue();
+            if (value != null)
+                res.value.add(value);
+            else if (idx < maxIndex)
+                res.value.add(JsonNull.NULL);
+            var c = source.nextNonWhitespace();
+            if (c == ']') {
+                requireIndexesBelow(source, idx + 1);
+                return res;
+            }
+            if (c != ',')
+                throw source.unexpected(c, "',' or ']'");
+        }
+    }
+
+    /** Fails, if a strict child is not an index of one of the elements. */
+    private void requireIndexesBelow(JsonSourceParser source, int size) {
+        for (var key : required)
+            if (!isIndex(key) || Integer.parseInt(key) >= size)
+                throw missing(source, key);
+    }
+
+}
\ No newline at end of file
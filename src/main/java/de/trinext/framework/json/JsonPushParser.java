@@ -0,0 +1,254 @@
+package de.trinext.framework.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A non-blocking parser for UTF-8 encoded json, that is fed with chunks of bytes as they arrive
+ * and passes the events to a {@link JsonHandler} right away.
+ * <p>
+ * The parser keeps its position in the grammar between chunks, so tokens may be split at any byte.
+ * Only the token, that is currently read, gets buffered, never the whole input.
+ * Strings, numbers and literals are validated and decoded by a {@link JsonBytesParser} once they are complete.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonPushParser {
+
+    // What the grammar expects next
+    private static final int //
+            VALUE = 0,
+            VALUE_OR_END_ARRAY = 1,
+            KEY = 2,
+            KEY_OR_END_OBJECT = 3,
+            COLON = 4,
+            COMMA_OR_END = 5,
+            END_OF_INPUT = 6;
+
+    // The kind of the token, that is currently read
+    private static final int //
+            NO_TOKEN = 0,
+            STRING_TOKEN = 1,
+            KEY_TOKEN = 2,
+            NUMBER_OR_LITERAL_TOKEN = 3;
+
+    private final JsonHandler handler;
+
+    private int expected = VALUE;
+
+    /** Whether each open container is an object. */
+    private boolean[] objects = new boolean[16];
+
+    private int depth;
+
+    private int tokenKind = NO_TOKEN;
+
+    /** The bytes of the current token, including the quotes of strings. */
+    private byte[] token = new byte[64];
+
+    private int tokenLength;
+
+    /** Whether the last byte of the current string token started an escape sequence. */
+    private boolean escaped;
+
+    /** The position of the current token in the whole input. */
+    private long tokenStart;
+
+    /** The amount of bytes consumed before the current chunk. */
+    private long consumed;
+
+    JsonPushParser(JsonHandler handler) {
+        this.handler = handler;
+    }
+
+    // ==== INPUT ============================================================ //
+
+    /** Consumes the remaining bytes of the chunk, which can be reused afterward. */
+    void feed(ByteBuffer chunk) {
+        var chunkStart = consumed - chunk.position();
+        while (chunk.hasRemaining()) {
+            if (tokenKind == STRING_TOKEN || tokenKind == KEY_TOKEN)
+                readString(chunk);
+            else if (tokenKind == NUMBER_OR_LITERAL_TOKEN)
+                readNumberOrLiteral(chunk);
+            else
+                readStructure(chunk, chunkStart);
+        }
+        consumed = chunkStart + chunk.position();
+    }
+
+    /** Ends the input and checks, that it was a single complete value. */
+    void finish() {
+        if (tokenKind == NUMBER_OR_LITERAL_TOKEN)
+            endToken();
+        if (tokenKind != NO_TOKEN)
+            throw new JsonParseException("Unterminated string", tokenStart);
+        if (expected != END_OF_INPUT)
+            throw new JsonParseException("Unexpected end of input", consumed);
+    }
+
+    // ==== STRUCTURE ======================================================== //
+
+    @SuppressWarnings({"OverlyComplexMethod", "OverlyLongMethod"})
+    private void readStructure(ByteBuffer chunk, long chunkStart) {
+        var b = chunk.get();
+        var bytePos = chunkStart + chunk.position() - 1;
+        switch (b) {
+            case ' ', '\t', '\n', '\r' -> { }
+            case '{', '[' -> {
+                var isObject = b == '{';
+                startValue(b, bytePos);
+                if (isObject)
+                    handler.startObject();
+                else
+                    handler.startArray();
+                if (depth == objects.length)
+                    objects = Arrays.copyOf(objects, depth * 2);
+                objects[depth++] = isObject;
+                expected = isObject ? KEY_OR_END_OBJECT : VALUE_OR_END_ARRAY;
+            }
+            case '}', ']' -> {
+                var isObject = b == '}';
+                var canEnd = expected == (isObject ? KEY_OR_END_OBJECT : VALUE_OR_END_ARRAY)
+                             || (expected == COMMA_OR_END && objects[depth - 1] == isObject);
+                if (!canEnd)
+                    throw unexpected(b, bytePos);
+                depth--;
+                if (isObject)
+                    handler.endObject();
+                else
+                    handler.endArray();
+                endValue();
+            }
+            case ',' -> {
+                if (expected != COMMA_OR_END)
+                    throw unexpected(b, bytePos);
+                expected = objects[depth - 1] ? KEY : VALUE;
+            }
+            case ':' -> {
+                if (expected != COLON)
+                    throw unexpected(b, bytePos);
+                expected = VALUE;
+            }
+            case '"' -> {
+                if (expected == KEY || expected == KEY_OR_END_OBJECT)
+                    tokenKind = KEY_TOKEN;
+                else {
+                    startValue(b, bytePos);
+                    tokenKind = STRING_TOKEN;
+                }
+                startToken(b, bytePos);
+            }
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 't', 'f', 'n' -> {
+                startValue(b, bytePos);
+                tokenKind = NUMBER_OR_LITERAL_TOKEN;
+                startToken(b, bytePos);
+            }
+            default -> throw unexpected(b, bytePos);
+        }
+    }
+
+    private void startValue(byte b, long bytePos) {
+        if (expected != VALUE && expected != VALUE_OR_END_ARRAY)
+            throw unexpected(b, bytePos);
+    }
+
+    private void endValue() {
+        expected = depth == 0 ? END_OF_INPUT : COMMA_OR_END;
+    }
+
+    private JsonParseException unexpected(byte b, long bytePos) {
+        var expectation = switch (expected) {
+            case VALUE -> "a value";
+            case VALUE_OR_END_ARRAY -> "a value or ']'";
+            case KEY -> "'\"'";
+            case KEY_OR_END_OBJECT -> "'\"' or '}'";
+            case COLON -> "':'";
+            case COMMA_OR_END -> objects[depth - 1] ? "',' or '}'" : "',' or ']'";
+            default -> "the end of input";
+        };
+        return new JsonParseException("Unexpected character '" + (char) (b & 0xFF) + "', expected " + expectation, bytePos);
+    }
+
+    // ==== TOKENS =========================================================== //
+
+    private void startToken(byte first, long bytePos) {
+        token[0] = first;
+        tokenLength = 1;
+        tokenStart = bytePos;
+        escaped = false;
+    }
+
+    /** Appends the bytes of the string up to and including its closing quote, if it is in the chunk. */
+    private void readString(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            if (escaped) {
+                escaped = false;
+                append(chunk.get());
+                continue;
+            }
+            // Copy everything up to the next quote or backslash at once
+            var from = chunk.position();
+            var special = chunk.hasArray()
+                          ? JsonByteScanner.indexOfSpecial(chunk.array(), chunk.arrayOffset() + from, chunk.arrayOffset() + chunk.limit()) - chunk.arrayOffset()
+                          : from;
+            if (special > from) {
+                append(chunk, special - from);
+                continue;
+            }
+            var b = chunk.get();
+            append(b);
+            if (b == '\\')
+                escaped = true;
+            else if (b == '"') {
+                endToken();
+                return;
+            }
+        }
+    }
+
+    /** Appends the bytes of the number or literal up to the first byte, that can not be part of it. */
+    private void readNumberOrLiteral(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            var b = chunk.get(chunk.position());
+            var isPart = (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z')
+                         || b == '.' || b == '+' || b == '-';
+            if (!isPart) {
+                endToken();
+                return;
+            }
+            append(chunk.get());
+        }
+    }
+
+    private void endToken() {
+        var parser = new JsonBytesParser(token, 0, tokenLength);
+        try {
+            if (tokenKind == KEY_TOKEN) {
+                parser.pos = 1;
+                handler.key(parser.parseKeyString());
+                expected = COLON;
+            } else {
+                parser.parse(handler);
+                endValue();
+            }
+        } catch (JsonParseException e) {
+            throw e.shifted(tokenStart);
+        }
+        tokenKind = NO_TOKEN;
+    }
+
+    private void append(byte b) {
+        if (tokenLength == token.length)
+            token = Arrays.copyOf(token, tokenLength * 2);
+        token[tokenLength++] = b;
+    }
+
+    private void append(ByteBuffer chunk, int length) {
+        if (tokenLength + length > token.length)
+            token = Arrays.copyOf(token, Math.max(tokenLength + length, tokenLength * 2));
+        chunk.get(token, tokenLength, length);
+        tokenLength += length;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,615 @@
+package de.trinext.framework.json;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A pull parser, that reads a json document token by token.
+ * <p>
+ * Only a fixed size buffer and the current token are held in memory,
+ * so documents of any size can be processed with constant memory.
+ * Small parts of a document can be materialized with {@link #readElement()}.
+ * <pre>{@code
+ * try (var reader = new JsonReader(inputStream)) {
+ *     reader.beginArray();
+ *     while (reader.hasNext()) {
+ *         var row = reader.readElement();
+ *         // ...
+ *     }
+ *     reader.endArray();
+ * }
+ * }</pre>
+ *
+ * @author Dennis Woithe
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JsonReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Scopes on the nesting stack
+    private static final int //
+            EMPTY_DOCUMENT = 0,
+            NONEMPTY_DOCUMENT = 1,
+            EMPTY_ARRAY = 2,
+            NONEMPTY_ARRAY = 3,
+            EMPTY_OBJECT = 4,
+            NONEMPTY_OBJECT = 5,
+            DANGLING_NAME = 6;
+
+    private final Reader in;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int pos, limit;
+
+    /** The amount of characters, that were read before the current buffer. */
+    private long bufferStart;
+
+    private int[] stack = new int[32];
+
+    private int stackSize = 1;
+
+    /** The next token, if it was already peeked. */
+    private JsonToken peeked;
+
+    /** The text of the last name or value read by {@link #nextToken()}. */
+    private final StringBuilder tokenText = new StringBuilder();
+
+    /** The text of the last number read. */
+    private final StringBuilder numberText = new StringBuilder();
+
+    /** Reused for the strings passed to a {@link JsonHandler}. */
+    private final StringBuilder stringText = new StringBuilder();
+
+    // ==== CONSTRUCTORS ===================================================== //
+
+    /** Creates a reader for json text. */
+    public JsonReader(Reader in) {
+        this.in = in;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /** Creates a reader for UTF-8 encoded json. */
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, UTF_8));
+    }
+
+    /** Creates a reader for UTF-8 encoded json. */
+    public JsonReader(ReadableByteChannel in) {
+        this(Channels.newReader(in, UTF_8));
+    }
+
+    // ==== TOKENS =========================================================== //
+
+    /** Returns the type of the next token without consuming it. */
+    public JsonToken peek() throws IOException {
+        if (peeked == null)
+            peeked = doPeek();
+        return peeked;
+    }
+
+    /** Returns whether the current object or array has another element. */
+    public boolean hasNext() throws IOException {
+        var token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the next token, whatever it is, and returns its type.
+     * The text of consumed names and values is available through {@link #tokenText()}.
+     */
+    public JsonToken nextToken() throws IOException {
+        var token = peek();
+        tokenText.setLength(0);
+        switch (token) {
+            case BEGIN_OBJECT -> beginObject();
+            case END_OBJECT -> endObject();
+            case BEGIN_ARRAY -> beginArray();
+            case END_ARRAY -> endArray();
+            case NAME, STRING -> {
+                peeked = null;
+                readString(tokenText);
+            }
+            case NUMBER -> {
+                peeked = null;
+                tokenText.append(readNumber());
+            }
+            case BOOLEAN, NULL -> tokenText.append(readLiteral());
+            case END_DOCUMENT -> { }
+        }
+        return token;
+    }
+
+    /** Returns the text of the last name or value consumed by {@link #nextToken()}. */
+    public String tokenText() {
+        return tokenText.toString();
+    }
+
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        stackSize--;
+    }
+
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        stackSize--;
+    }
+
+    /** Consumes the name of the next object field. */
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        return readString(new StringBuilder()).toString();
+    }
+
+    public String nextString() throws IOException {
+        expect(JsonToken.STRING);
+        return readString(new StringBuilder()).toString();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        if (peek() != JsonToken.BOOLEAN)
+            throw unexpectedToken(JsonToken.BOOLEAN);
+        return readLiteral() == JsonBool.TRUE;
+    }
+
+    public void nextNull() throws IOException {
+        if (peek() != JsonToken.NULL)
+            throw unexpectedToken(JsonToken.NULL);
+        readLiteral();
+    }
+
+    /** Consumes the next number, which has to be an integer fitting into a long. */
+    public long nextLong() throws IOException {
+        expect(JsonToken.NUMBER);
+        var literal = readNumber();
+        try {
+            return Long.parseLong(literal, 0, literal.length(), 10);
+        } catch (NumberFormatException nfe) {
+            try {
+                return new BigDecimal(literal.toString()).longValueExact();
+            } catch (ArithmeticException ae) {
+                throw error("Expected a long but was " + literal);
+            }
+        }
+    }
+
+    /** Consumes the next number, which has to be an integer fitting into an int. */
+    public int nextInt() throws IOException {
+        var res = nextLong();
+        if (res != (int) res)
+            throw error("Expected an int but was " + res);
+        return (int) res;
+    }
+
+    public double nextDouble() throws IOException {
+        expect(JsonToken.NUMBER);
+        return Double.parseDouble(readNumber().toString());
+    }
+
+    /**
+     * Skips the next value including all of its nested values without materializing anything.
+     * If the next token is a name, the name and its value are skipped.
+     */
+    public void skipValue() throws IOException {
+        expectValueOrName();
+        var depth = 0;
+        while (true) {
+            var token = peek();
+            switch (token) {
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    depth++;
+                }
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    depth--;
+                }
+                case NAME, STRING -> {
+                    peeked = null;
+                    readString(null);
+                }
+                case NUMBER -> {
+                    peeked = null;
+                    readNumber();
+                }
+                case BOOLEAN, NULL -> readLiteral();
+                case END_DOCUMENT -> throw error("Unexpected end of input");
+            }
+            if (depth == 0 && token != JsonToken.NAME)
+                return;
+        }
+    }
+
+    /** Consumes the next value and materializes it as a tree of {@link JsonElement}s. */
+    public JsonElement<?> readElement() throws IOException {
+        var builder = new JsonTreeBuilder();
+        readValue(builder);
+        return builder.result();
+    }
+
+    /** Consumes the next value including all of its nested values and passes their events to the handler. */
+    @SuppressWarnings("OverlyComplexMethod")
+    public void readValue(JsonHandler handler) throws IOException {
+        if (expectValueOrName() == JsonToken.NAME)
+            throw unexpectedToken("a value");
+        var depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    handler.startObject();
+                    depth++;
+                }
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    handler.startArray();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    handler.endObject();
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    handler.endArray();
+                    depth--;
+                }
+                case NAME -> {
+                    expect(JsonToken.NAME);
+                    handler.key(readString(scratchText()));
+                }
+                case STRING -> {
+                    expect(JsonToken.STRING);
+                    handler.value(readString(scratchText()));
+                }
+                case NUMBER -> {
+                    expect(JsonToken.NUMBER);
+                    readNumber(handler);
+                }
+                case BOOLEAN -> handler.value(nextBoolean());
+                case NULL -> {
+                    nextNull();
+                    handler.nullValue();
+                }
+                case END_DOCUMENT -> throw error("Unexpected end of input");
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Copies the next value token by token to the writer, without materializing anything.
+     * Numbers are copied as they are, strings and names are escaped again by the writer.
+     */
+    void copyValue(JsonWriter writer) throws IOException {
+        if (expectValueOrName() == JsonToken.NAME)
+            throw unexpectedToken("a value");
+        var depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT -> {
+                    beginObject();
+                    writer.beginObject();
+                    depth++;
+                }
+                case BEGIN_ARRAY -> {
+                    beginArray();
+                    writer.beginArray();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    endObject();
+                    writer.endObject();
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    endArray();
+                    writer.endArray();
+                    depth--;
+                }
+                case NAME -> {
+                    expect(JsonToken.NAME);
+                    writer.name(readString(scratchText()));
+                }
+                case STRING -> {
+                    expect(JsonToken.STRING);
+                    writer.value(readString(scratchText()));
+                }
+                case NUMBER -> {
+                    expect(JsonToken.NUMBER);
+                    writer.numberValue(readNumber());
+                }
+                case BOOLEAN -> writer.value(nextBoolean());
+                case NULL -> {
+                    nextNull();
+                    writer.nullValue();
+                }
+                case END_DOCUMENT -> throw error("Unexpected end of input");
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ==== STRUCTURE ======================================================== //
+
+    @SuppressWarnings("OverlyComplexMethod")
+    private JsonToken doPeek() throws IOException {
+        var top = stackSize - 1;
+        switch (stack[top]) {
+            case EMPTY_ARRAY -> {
+                stack[top] = NONEMPTY_ARRAY;
+                if (nextNonWhitespace() == ']')
+                    return JsonToken.END_ARRAY;
+                pos--;
+            }
+            case NONEMPTY_ARRAY -> {
+                var c = nextNonWhitespace();
+                if (c == ']')
+                    return JsonToken.END_ARRAY;
+                if (c != ',')
+                    throw unexpected(c, "',' or ']'");
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                var c = nextNonWhitespace();
+                if (c == '}')
+                    return JsonToken.END_OBJECT;
+                if (stack[top] == NONEMPTY_OBJECT) {
+                    if (c != ',')
+                        throw unexpected(c, "',' or '}'");
+                    c = nextNonWhitespace();
+                }
+                if (c != '"')
+                    throw unexpected(c, "'\"'");
+                stack[top] = DANGLING_NAME;
+                return JsonToken.NAME;
+            }
+            case DANGLING_NAME -> {
+                var c = nextNonWhitespace();
+                if (c != ':')
+                    throw unexpected(c, "':'");
+                stack[top] = NONEMPTY_OBJECT;
+            }
+            case EMPTY_DOCUMENT -> stack[top] = NONEMPTY_DOCUMENT;
+            default -> {
+                int c;
+                do c = read(true);
+                while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+                if (c == -1)
+                    return JsonToken.END_DOCUMENT;
+                throw unexpected(c, "the end of input");
+            }
+        }
+        var c = nextNonWhitespace();
+        return switch (c) {
+            case '{' -> JsonToken.BEGIN_OBJECT;
+            case '[' -> JsonToken.BEGIN_ARRAY;
+            case '"' -> JsonToken.STRING;
+            case 't', 'f' -> {
+                pos--;
+                yield JsonToken.BOOLEAN;
+            }
+            case 'n' -> {
+                pos--;
+                yield JsonToken.NULL;
+            }
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                pos--;
+                yield JsonToken.NUMBER;
+            }
+            default -> throw unexpected(c, "a value");
+        };
+    }
+
+    private JsonToken expectValueOrName() throws IOException {
+        var token = peek();
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY || token == JsonToken.END_DOCUMENT)
+            throw unexpectedToken("a value");
+        return token;
+    }
+
+    private void expect(JsonToken token) throws IOException {
+        if (peek() != token)
+            throw unexpectedToken(token);
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length)
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = scope;
+    }
+
+    // ==== VALUES =========================================================== //
+
+    private StringBuilder scratchText() {
+        stringText.setLength(0);
+        return stringText;
+    }
+
+    /** Reads a string, whose opening quote was already consumed, into the passed builder (if not null). */
+    private StringBuilder readString(StringBuilder sb) throws IOException {
+        while (true) {
+            var c = read(false);
+            if (c == '"')
+                return sb;
+            if (c == '\\')
+                c = readEscape();
+            else if (c < 0x20)
+                throw error("Unescaped control character in string");
+            if (sb != null)
+                sb.append((char) c);
+        }
+    }
+
+    private int readEscape() throws IOException {
+        return switch (read(false)) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                var res = 0;
+                for (var i = 0; i < 4; i++) {
+                    var digit = Character.digit(read(false), 16);
+                    if (digit < 0)
+                        throw error("Invalid unicode escape sequence");
+                    res = (res << 4) | digit;
+                }
+                yield res;
+            }
+            default -> throw error("Invalid escape sequence");
+        };
+    }
+
+    /** Reads and validates a number. */
+    @SuppressWarnings("OverlyComplexMethod")
+    private StringBuilder readNumber() throws IOException {
+        var sb = numberText;
+        sb.setLength(0);
+        int c;
+        while ((c = read(true)) != -1 && (c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'))
+            sb.append((char) c);
+        if (c != -1)
+            pos--;
+        // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+        var i = sb.charAt(0) == '-' ? 1 : 0;
+        var intStart = i;
+        while (i < sb.length() && Character.isDigit(sb.charAt(i)))
+            i++;
+        var valid = i > intStart && (sb.charAt(intStart) != '0' || i == intStart + 1);
+        if (valid && i < sb.length() && sb.charAt(i) == '.') {
+            var fracStart = ++i;
+            while (i < sb.length() && Character.isDigit(sb.charAt(i)))
+                i++;
+            valid = i > fracStart;
+        }
+        if (valid && i < sb.length() && (sb.charAt(i) == 'e' || sb.charAt(i) == 'E')) {
+            if (++i < sb.length() && (sb.charAt(i) == '+' || sb.charAt(i) == '-'))
+                i++;
+            var expStart = i;
+            while (i < sb.length() && Character.isDigit(sb.charAt(i)))
+                i++;
+            valid = i > expStart;
+        }
+        if (!valid || i != sb.length())
+            throw error("Invalid number " + sb);
+        return sb;
+    }
+
+    /** Reads a number and passes it to the handler. */
+    private void readNumber(JsonHandler handler) throws IOException {
+        var literal = readNumber();
+        var len = literal.length();
+        for (var i = 0; i < len; i++) {
+            var c = literal.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                if (handler.exactDecimals())
+                    handler.value(new BigDecimal(literal.toString()));
+                else
+                    handler.value(Double.parseDouble(literal.toString()));
+                return;
+            }
+        }
+        // Integers with at most 18 digits always fit into a long
+        if (len - (literal.charAt(0) == '-' ? 1 : 0) <= 18)
+            handler.value(Long.parseLong(literal, 0, len, 10));
+        else
+            handler.value(new BigInteger(literal.toString()));
+    }
+
+    /** Reads one of the literals true, false or null. */
+    private JsonElement<?> readLiteral() throws IOException {
+        peeked = null;
+        var first = read(false);
+        var literal = first == 't' ? "true" : first == 'f' ? "false" : "null";
+        for (var i = 1; i < literal.length(); i++)
+            if (read(false) != literal.charAt(i))
+                throw error("Invalid literal, expected '" + literal + "'");
+        return first == 't' ? JsonBool.TRUE : first == 'f' ? JsonBool.FALSE : JsonNull.NULL;
+    }
+
+    // ==== INPUT ============================================================ //
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do c = read(false);
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @param eofAllowed whether to return -1 instead of throwing at the end of input.
+     */
+    private int read(boolean eofAllowed) throws IOException {
+        if (pos == limit && !fill()) {
+            if (eofAllowed)
+                return -1;
+            throw error("Unexpected end of input");
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        bufferStart += limit;
+        pos = limit = 0;
+        int read;
+        while ((read = in.read(buffer)) == 0) {
+            // Retry until the reader either delivers or reaches its end
+        }
+        if (read < 0)
+            return false;
+        limit = read;
+        return true;
+    }
+
+    // ==== ERRORS =========================================================== //
+
+    private JsonParseException unexpectedToken(Object expected) throws IOException {
+        return error("Expected " + expected + " but was " + peek());
+    }
+
+    private JsonParseException unexpected(int c, String expected) {
+        pos--;
+        return error("Unexpected character '" + (char) c + "', expected " + expected);
+    }
+
+    private JsonParseException error(String message) {
+        return new JsonParseException(message, bufferStart + pos);
+    }
+
+}
\ No newline at end of file
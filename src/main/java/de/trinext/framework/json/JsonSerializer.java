@@ -0,0 +1,220 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Writes the json text of a tree in one pass into a sink, without creating the text of any subtree.
+ * <p>
+ * The tree is walked iteratively with an explicit stack of the open containers,
+ * so arbitrarily deep trees never overflow the call stack. The walk can also be done step by step,
+ * so that the text is produced on demand.
+ * Containers, whose text is memoised, are written as a whole instead of being walked.
+ * <p>
+ * {@link #toString(JsonContainer)} only memoises the text of the root, so the tree never holds more than
+ * one copy of its text. Containers inside are memoised, when their own text is asked for.
+ * Other {@link JsonWriteOptions} than the default are written in the same single pass, but neither use nor create
+ * memoised texts.
+ * Every container inside a memoised one is linked to the nearest memoised container around it,
+ * so that a change drops the memoised texts around it. Until that container is known, they are collected by the frames.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonSerializer {
+
+    private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+    /** The builder, if the output is one, in which the texts of the containers are memoised, or null. */
+    private final StringBuilder memoised;
+
+    private final JsonWriteOptions options;
+
+    /** The depth of the root in the document, by which the text is indented. */
+    private final int depth;
+
+    /** The root, until it was started. */
+    private JsonElement<?> root;
+
+    /** Creates a serializer, that writes the tree step by step. */
+    JsonSerializer(JsonElement<?> root) {
+        this(root, JsonWriteOptions.DEFAULT);
+    }
+
+    /** Creates a serializer, that writes the tree step by step in the format of the options. */
+    JsonSerializer(JsonElement<?> root, JsonWriteOptions options) {
+        this(root, options, null, 0);
+    }
+
+    /** Memoised texts are only used and created for the default options. */
+    private JsonSerializer(JsonElement<?> root, JsonWriteOptions options, StringBuilder memoised, int depth) {
+        this.root = root;
+        this.options = options;
+        this.depth = depth;
+        this.memoised = options.isDefault() ? memoised : null;
+    }
+
+    /** An open container and how far it was written. */
+    private static final class Frame {
+
+        final JsonContainer<?> container;
+
+        final Iterator<?> it;
+
+        final boolean object;
+
+        /** The length of the text before the container. */
+        final int start;
+
+        boolean started;
+
+        /** The containers inside, whose nearest memoised container around them is not known yet, or null. */
+        ArrayList<JsonContainer<?>> unlinked;
+
+        Frame(JsonContainer<?> container, Iterator<?> it, boolean object, int start) {
+            this.container = container;
+            this.it = it;
+            this.object = object;
+            this.start = start;
+        }
+
+    }
+
+    // ==== WRITING ========================================================== //
+
+    /** Returns the json text of a container and memoises it. A measured size presizes the builder. */
+    static String toString(JsonContainer<?> root) {
+        var res = root.serialized;
+        if (res != null)
+            return res;
+        var size = root.size;
+        var sb = size == null || size.chars() > Integer.MAX_VALUE ? new StringBuilder() : new StringBuilder((int) size.chars());
+        try {
+            write(root, JsonWriteOptions.DEFAULT, sb, sb, 0);
+        } catch (IOException e) { // Never thrown by a StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return root.serialized;
+    }
+
+    /** Returns the json text of an element in the format of the options. */
+    static String toString(JsonElement<?> root, JsonWriteOptions options) {
+        if (options.isDefault())
+            return root.toString();
+        var sb = new StringBuilder();
+        try {
+            write(root, options, sb, null, 0);
+        } catch (IOException e) { // Never thrown by a StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    static void write(JsonElement<?> root, Appendable out) throws IOException {
+        write(root, JsonWriteOptions.DEFAULT, out, null, 0);
+    }
+
+    static void write(JsonElement<?> root, JsonWriteOptions options, Appendable out) throws IOException {
+        write(root, options, out, null, 0);
+    }
+
+    /** Writes a tree, that is nested in the given depth of a document, e.g. written by a {@link JsonWriter}. */
+    static void write(JsonElement<?> root, JsonWriteOptions options, Appendable out, int depth) throws IOException {
+        write(root, options, out, null, depth);
+    }
+
+    private static void write(
+            JsonElement<?> root, JsonWriteOptions options, Appendable out, StringBuilder memoised, int depth
+    ) throws IOException {
+        var serializer = new JsonSerializer(root, options, memoised, depth);
+        while (serializer.hasNext())
+            serializer.writeNext(out);
+    }
+
+    // ==== STEPS ============================================================ //
+
+    /** Whether anything of the tree is left to write. */
+    boolean hasNext() {
+        return root != null || !stack.isEmpty();
+    }
+
+    /** Writes the next primitive, memoised container, opening or closing of a container. */
+    void writeNext(Appendable out) throws IOException {
+        if (root != null) {
+            var elem = root;
+            root = null;
+            writeValue(elem, out);
+            return;
+        }
+        var frame = stack.peek();
+        if (!frame.it.hasNext()) {
+            stack.pop();
+            if (frame.started)
+                options.writeClosing(out, depth + stack.size());
+            out.append(frame.object ? '}' : ']');
+            if (memoised != null)
+                memoise(frame);
+            return;
+        }
+        if (frame.started)
+            options.writeSeparator(out, depth + stack.size());
+        else
+            options.writeOpened(out, depth + stack.size());
+        frame.started = true;
+        var next = frame.it.next();
+        if (frame.object) {
+            var entry = (Entry<?, ?>) next;
+            options.writeString((String) entry.getKey(), out);
+            options.writeNameSeparator(out);
+            next = entry.getValue();
+        }
+        writeValue((JsonElement<?>) next, out);
+    }
+
+    /** Memoises the text of the closed root or passes on the containers to link to it. */
+    private void memoise(Frame frame) {
+        var parent = stack.peek();
+        if (parent != null) {
+            parent.unlinked = JsonContainer.unlinked(parent.unlinked, frame.unlinked, frame.container);
+            return;
+        }
+        frame.container.serialized = memoised.toString();
+        frame.container.includes(frame.unlinked);
+    }
+
+    /** Writes a primitive or memoised container completely or opens a container and pushes it onto the stack. */
+    private void writeValue(JsonElement<?> elem, Appendable out) throws IOException {
+        if (elem instanceof JsonContainer<?> container) {
+            var text = container.serialized;
+            if (text != null && options.isDefault()) {
+                if (memoised != null && !stack.isEmpty()) {
+                    var parent = stack.peek();
+                    parent.unlinked = JsonContainer.unlinked(parent.unlinked, null, container);
+                }
+                out.append(text);
+                return;
+            }
+        }
+        var start = memoised == null ? 0 : memoised.length();
+        switch (elem) {
+            case JsonMap map -> {
+                out.append('{');
+                var entries = options.isSortedKeys()
+                              ? map.value.entrySet().stream().sorted(Entry.comparingByKey()).iterator()
+                              : map.value.entrySet().iterator();
+                stack.push(new Frame(map, entries, true, start));
+            }
+            case JsonList list -> {
+                out.append('[');
+                stack.push(new Frame(list, list.value.iterator(), false, start));
+            }
+            case JsonString str -> options.writeString(str.value, out);
+            case JsonNumber<?> nr when options.isCanonical() -> out.append(nr.toCanonicalString());
+            default -> out.append(elem.toString());
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package de.trinext.framework.json;
+
+/**
+ * The size of the json text of an element, as it is written by {@link JsonElement#writeTo(Appendable)}.
+ *
+ * @param chars the amount of characters of the text.
+ * @param utf8Bytes the amount of bytes of the UTF-8 encoded text.
+ *
+ * @author Dennis Woithe
+ * @see JsonElement#serializedSize()
+ */
+public record JsonSize(long chars, long utf8Bytes) { }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package de.trinext.framework.json;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Measures the json text of a tree without writing it, in one iterative walk like {@link JsonSerializer}.
+ * <p>
+ * Nothing is rendered: strings, integers fitting into a long and literals are measured arithmetically,
+ * decimals and big integers render their text once and cache its length.
+ * The frames of the walk are reused by depth and lists are walked by index, so measuring only allocates
+ * an iterator per object and the cached sizes: the sizes of the root and of the containers in the upper
+ * {@value #MAX_CACHED_DEPTH} levels, whose text has at least {@value #MIN_CACHED_LENGTH} characters, are cached
+ * and dropped on changes just like memoised texts. Memoised texts are measured directly.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonSizeCounter {
+
+    /** Smaller containers are cheaper to measure again than to keep their size. */
+    private static final int MIN_CACHED_LENGTH = 256;
+
+    private static final int MAX_CACHED_DEPTH = 8;
+
+    /** The frames of the open containers by depth, which are kept for reuse after the containers are closed. */
+    private final ArrayList<Frame> frames = new ArrayList<>();
+
+    private int depth;
+
+    private long chars, bytes;
+
+    private JsonSizeCounter() { }
+
+    /** An open container and the size before it. */
+    private static final class Frame {
+
+        JsonContainer<?> container;
+
+        /** The entries of an object or null for an array. */
+        Iterator<? extends Entry<String, JsonElement<?>>> entries;
+
+        /** The elements of an array or null for an object. */
+        List<JsonElement<?>> elems;
+
+        /** The index of the next element of an array. */
+        int next;
+
+        long startChars, startBytes;
+
+        /** The containers inside, whose nearest container with a cached size around them is not known yet, or null. */
+        ArrayList<JsonContainer<?>> unlinked;
+
+        boolean hasNext() {
+            return entries != null ? entries.hasNext() : next < elems.size();
+        }
+
+    }
+
+    // ==== MEASURING ======================================================== //
+
+    static JsonSize measure(JsonElement<?> root) {
+        if (root instanceof JsonContainer<?> container && container.size != null)
+            return container.size;
+        var counter = new JsonSizeCounter();
+        counter.countValue(root);
+        while (counter.depth > 0) {
+            var frame = counter.frames.get(counter.depth - 1);
+            if (!frame.hasNext()) {
+                counter.depth--;
+                var unlinked = frame.unlinked;
+                var chars = counter.chars - frame.startChars;
+                if (isCached(counter.depth, chars)) {
+                    frame.container.size = new JsonSize(chars, counter.bytes - frame.startBytes);
+                    frame.container.includes(unlinked);
+                    unlinked = null;
+                }
+                if (counter.depth > 0) {
+                    var parent = counter.frames.get(counter.depth - 1);
+                    parent.unlinked = JsonContainer.unlinked(parent.unlinked, unlinked, frame.container);
+                }
+                // Nothing of the closed container may stay reachable through the reused frame
+                frame.container = null;
+                frame.entries = null;
+                frame.elems = null;
+                frame.unlinked = null;
+                continue;
+            }
+            if (frame.entries != null) {
+                var entry = frame.entries.next();
+                counter.countString(entry.getKey());
+                counter.add(1); // ':'
+                counter.countValue(entry.getValue());
+            } else
+                counter.countValue(frame.elems.get(frame.next++));
+        }
+        return root instanceof JsonContainer<?> container ? container.size : new JsonSize(counter.chars, counter.bytes);
+    }
+
+    private void countValue(JsonElement<?> elem) {
+        if (elem instanceof JsonContainer<?> container) {
+            var size = container.size;
+            if (size == null && container.serialized != null)
+                container.size = size = new JsonSize(
+                        container.serialized.length(),
+                        JsonUtf8Sink.utf8Length(container.serialized)
+                );
+            if (size != null) {
+                if (depth > 0) {
+                    var parent = frames.get(depth - 1);
+                    parent.unlinked = JsonContainer.unlinked(parent.unlinked, null, container);
+                }
+                chars += size.chars();
+                bytes += size.utf8Bytes();
+                return;
+            }
+        }
+        switch (elem) {
+            case JsonMap map -> {
+                var frame = open(map);
+                frame.entries = map.value.entrySet().iterator();
+                countBrackets(map.value.size());
+            }
+            case JsonList list -> {
+                var frame = open(list);
+                // Both the regular and the lazy storage of lists are random access
+                frame.elems = list.value;
+                frame.next = 0;
+                countBrackets(list.value.size());
+            }
+            case JsonString str -> countString(str.value);
+            case JsonInteger integer when integer.fitsLong() -> add(digits(integer.longValue()));
+            case JsonNumber<?> number -> add(number.textLength()); // Numbers are plain ascii
+            case JsonBool bool -> add(bool.value ? 4 : 5);
+            case JsonNull ignored -> add(4);
+        }
+    }
+
+    /** Whether the size of a container in the depth and with the length of text is kept. */
+    private static boolean isCached(int depth, long length) {
+        return depth == 0 || depth <= MAX_CACHED_DEPTH && length >= MIN_CACHED_LENGTH;
+    }
+
+    /** Pushes the frame for the container, reusing the one left at this depth. */
+    private Frame open(JsonContainer<?> container) {
+        if (depth == frames.size())
+            frames.add(new Frame());
+        var frame = frames.get(depth++);
+        frame.container = container;
+        frame.startChars = chars;
+        frame.startBytes = bytes;
+        return frame;
+    }
+
+    /** Counts both brackets and the separators between the elements right away. */
+    private void countBrackets(int elements) {
+        add(elements > 1 ? 2 + 2L * (elements - 1) : 2);
+    }
+
+    /** Counts a string with quotes and escapes. */
+    private void countString(String str) {
+        add(2);
+        for (var i = 0; i < str.length(); i++) {
+            var c = str.charAt(i);
+            var escape = JsonEscaper.escapeOf(c);
+            if (escape != null)
+                add(escape.length());
+            else {
+                chars++;
+                if (c < 0x80)
+                    bytes++;
+                else if (c < 0x800)
+                    bytes += 2;
+                else if (Character.isSurrogate(c))
+                    bytes += JsonUtf8Sink.isPair(str, i) ? 2 : 1;
+                else
+                    bytes += 3;
+            }
+        }
+    }
+
+    /** Counts ascii characters. */
+    private void add(long asciiChars) {
+        chars += asciiChars;
+        bytes += asciiChars;
+    }
+
+    private static int digits(long value) {
+        var res = value < 0 ? 2 : 1;
+        for (var rest = value; rest >= 10 || rest <= -10; rest /= 10)
+            res++;
+        return res;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,514 @@
+package de.trinext.framework.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses json from an indexable input source in a single pass,
+ * either directly into a tree of {@link JsonElement}s or into the events of a {@link JsonHandler}.
+ * <p>
+ * Nesting is tracked with an explicit stack instead of recursion,
+ * so arbitrarily deep documents can not overflow the call stack.
+ * Subclasses only have to provide access to the single characters and decode strings.
+ *
+ * @author Dennis Woithe
+ */
+abstract class JsonSourceParser {
+
+    /** Integers with at most this many digits always fit into a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /** Decimals with at most this many significant digits survive the round trip through a double. */
+    private static final int MAX_SHORTEST_DIGITS = 15;
+
+    /** All powers of ten, that are exactly representable as double. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** The index of the first character, from which error positions are counted. */
+    final int start;
+
+    /** The index after the last character. */
+    final int end;
+
+    /** The index of the next character to read. */
+    int pos;
+
+    /** The table, through which keys (and short string values) are canonicalized, or null. */
+    JsonSymbolTable symbols;
+
+    JsonSourceParser(int start, int end) {
+        this(start, start, end);
+    }
+
+    /** Creates a parser, that only reads the passed range, but reports error positions relative to the start. */
+    JsonSourceParser(int start, int from, int to) {
+        this.start = start;
+        this.end = to;
+        this.pos = from;
+    }
+
+    // ==== SOURCE =========================================================== //
+
+    /** Returns the character (or byte) at the passed index as an unsigned value. */
+    abstract int at(int idx);
+
+    /** Parses a string, whose opening quote was already read, and moves behind the closing quote. */
+    abstract String parseString();
+
+    /** Returns the passed range, which only contains ascii characters, as a {@link String}. */
+    abstract String asciiText(int from, int to);
+
+    /** Creates an independent parser for a range of the same source. */
+    abstract JsonSourceParser slice(int from, int to);
+
+    // ==== STRUCTURE ======================================================== //
+
+    /** Parses the input into a tree of {@link JsonElement}s. */
+    JsonElement<?> parse() {
+        var builder = new JsonTreeBuilder();
+        parse(builder);
+        return builder.result();
+    }
+
+    /** Parses the value starting at the passed index into a tree of {@link JsonElement}s. */
+    final JsonElement<?> parseValueAt(int idx) {
+        pos = idx;
+        var builder = new JsonTreeBuilder();
+        parseValue(builder);
+        return builder.result();
+    }
+
+    /** Parses the input and passes its events to the handler. */
+    void parse(JsonHandler handler) {
+        parseValue(handler);
+        if (skipWhitespace() < end)
+            throw error("Unexpected trailing character '" + (char) at(pos) + "'");
+    }
+
+    /** Parses the comma separated elements of a part of an array, that fills the whole range. */
+    final List<JsonElement<?>> parseElements() {
+        var res = new ArrayList<JsonElement<?>>();
+        while (true) {
+            res.add(parseValueAt(pos));
+            if (skipWhitespace() >= end)
+                return res;
+            var c = at(pos++);
+            if (c != ',')
+                throw unexpected(c, "',' or ']'");
+        }
+    }
+
+    /** Parses one value including all of its nested values. */
+    @SuppressWarnings({"OverlyComplexMethod", "OverlyLongMethod"})
+    private void parseValue(JsonHandler handler) {
+        // Whether each open container is an object
+        var objects = new boolean[16];
+        var depth = 0;
+        while (true) {
+            // Read the next value
+            var c = nextNonWhitespace();
+            if (c == '{' || c == '[') {
+                var isObject = c == '{';
+                if (isObject)
+                    handler.startObject();
+                else
+                    handler.startArray();
+                if (peekNonWhitespace() != (isObject ? '}' : ']')) {
+                    if (depth == objects.length)
+                        objects = Arrays.copyOf(objects, depth * 2);
+                    objects[depth++] = isObject;
+                    if (isObject)
+                        handler.key(parseKey());
+                    continue;
+                }
+                pos++;
+                if (isObject)
+                    handler.endObject();
+                else
+                    handler.endArray();
+            } else
+                parsePrimitive(c, handler);
+            // Read the separator or close all finished containers
+            while (true) {
+                if (depth == 0)
+                    return;
+                var isObject = objects[depth - 1];
+                c = nextNonWhitespace();
+                if (c == ',') {
+                    if (isObject)
+                        handler.key(parseKey());
+                    break;
+                }
+                if (c != (isObject ? '}' : ']'))
+                    throw unexpected(c, isObject ? "',' or '}'" : "',' or ']'");
+                depth--;
+                if (isObject)
+                    handler.endObject();
+                else
+                    handler.endArray();
+            }
+        }
+    }
+
+    /** Validates one value including all of its nested values and moves behind it, without creating anything. */
+    @SuppressWarnings("OverlyComplexMethod")
+    final void skipValue() {
+        // Whether each open container is an object
+        var objects = new boolean[16];
+        var depth = 0;
+        while (true) {
+            var c = nextNonWhitespace();
+            if (c == '{' || c == '[') {
+                var isObject = c == '{';
+                if (peekNonWhitespace() != (isObject ? '}' : ']')) {
+                    if (depth == objects.length)
+                        objects = Arrays.copyOf(objects, depth * 2);
+                    objects[depth++] = isObject;
+                    if (isObject)
+                        skipKey();
+                    continue;
+                }
+                pos++;
+            } else
+                switch (c) {
+                    case '"' -> skipString();
+                    case 't' -> parseLiteral("true");
+                    case 'f' -> parseLiteral("false");
+                    case 'n' -> parseLiteral("null");
+                    case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> skipNumber();
+                    default -> throw unexpected(c, "a value");
+                }
+            // Read the separator or close all finished containers
+            while (true) {
+                if (depth == 0)
+                    return;
+                var isObject = objects[depth - 1];
+                c = nextNonWhitespace();
+                if (c == ',') {
+                    if (isObject)
+                        skipKey();
+                    break;
+                }
+                if (c != (isObject ? '}' : ']'))
+                    throw unexpected(c, isObject ? "',' or '}'" : "',' or ']'");
+                depth--;
+            }
+        }
+    }
+
+    private void skipKey() {
+        var c = nextNonWhitespace();
+        if (c != '"')
+            throw unexpected(c, "'\"'");
+        skipString();
+        c = nextNonWhitespace();
+        if (c != ':')
+            throw unexpected(c, "':'");
+    }
+
+    /** Reads a key including the following colon. */
+    String parseKey() {
+        var c = nextNonWhitespace();
+        if (c != '"')
+            throw unexpected(c, "'\"'");
+        var key = parseKeyString();
+        c = nextNonWhitespace();
+        if (c != ':')
+            throw unexpected(c, "':'");
+        return key;
+    }
+
+    /** Parses a key, whose opening quote was already read, through the symbol table. */
+    final String parseKeyString() {
+        return symbols != null ? parseSymbol(JsonSymbolTable.MAX_KEY_LENGTH) : parseString();
+    }
+
+    /** Parses a string, whose opening quote was already read, through the symbol table if it is short plain ascii. */
+    private String parseSymbol(int maxLength) {
+        var strStart = pos;
+        var hash = 0;
+        for (int i = strStart, limit = Math.min(end, strStart + maxLength + 1); i < limit; i++) {
+            var c = at(i);
+            if (c == '"') {
+                pos = i + 1;
+                return symbols.lookup(this, strStart, i, hash);
+            }
+            if (c == '\\' || c < 0x20 || c >= 0x80)
+                break;
+            hash = 31 * hash + c;
+        }
+        return parseString();
+    }
+
+    // ==== PRIMITIVES ======================================================= //
+
+    private void parsePrimitive(int c, JsonHandler handler) {
+        switch (c) {
+            case '"' -> handler.value(
+                    symbols != null && symbols.maxValueLength() > 0
+                    ? parseSymbol(symbols.maxValueLength())
+                    : parseString()
+            );
+            case 't' -> {
+                parseLiteral("true");
+                handler.value(true);
+            }
+            case 'f' -> {
+                parseLiteral("false");
+                handler.value(false);
+            }
+            case 'n' -> {
+                parseLiteral("null");
+                handler.nullValue();
+            }
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> parseNumber(handler);
+            default -> throw unexpected(c, "a value");
+        }
+    }
+
+    /** Checks the rest of a literal, whose first character was already read. */
+    final void parseLiteral(String literal) {
+        if (pos - 1 + literal.length() > end)
+            throw error("Invalid literal, expected '" + literal + "'");
+        for (var i = 1; i < literal.length(); i++)
+            if (at(pos - 1 + i) != literal.charAt(i))
+                throw error("Invalid literal, expected '" + literal + "'");
+        pos += literal.length() - 1;
+    }
+
+    /** Parses a number, whose first character was already read. */
+    private void parseNumber(JsonHandler handler) {
+        var numStart = pos - 1;
+        var integral = skipNumber();
+        if (!integral) {
+            var exact = handler.exactDecimals();
+            var fast = parseFastDouble(numStart, pos, exact);
+            if (!Double.isNaN(fast)) {
+                if (exact && handler instanceof JsonTreeBuilder builder)
+                    builder.shortestValue(fast);
+                else if (exact)
+                    handler.value(BigDecimal.valueOf(fast));
+                else
+                    handler.value(fast);
+            } else if (exact)
+                handler.value(new BigDecimal(asciiText(numStart, pos)));
+            else
+                handler.value(Double.parseDouble(asciiText(numStart, pos)));
+            return;
+        }
+        var intStart = at(numStart) == '-' ? numStart + 1 : numStart;
+        if (pos - intStart > MAX_LONG_DIGITS) {
+            handler.value(new BigInteger(asciiText(numStart, pos)));
+            return;
+        }
+        var res = 0L;
+        for (var j = intStart; j < pos; j++)
+            res = res * 10 + (at(j) - '0');
+        handler.value(intStart == numStart ? res : -res);
+    }
+
+    /**
+     * Parses a decimal with at most 15 significant digits and a small exponent without creating any text,
+     * by dividing or multiplying the digits by a power of ten. Both are exact as doubles,
+     * so the result is correctly rounded, just like {@link Double#parseDouble(String)}.
+     * <p>
+     * If only shortest decimals are accepted, the text also has to be exactly what {@link Double#toString(double)} returns,
+     * so that the double represents it without any loss:
+     * No exponent, no trailing zeros except a single {@code .0} and in the range, that is written without exponent.
+     *
+     * @return the double or NaN, if the decimal has to be parsed from its text.
+     */
+    private double parseFastDouble(int from, int to, boolean shortestOnly) {
+        var i = at(from) == '-' ? from + 1 : from;
+        var mantissa = 0L;
+        var digits = 0;
+        var fracDigits = 0;
+        var inFraction = false;
+        for (; i < to; i++) {
+            var c = at(i);
+            if (c == '.') {
+                inFraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9')
+                break;
+            if (mantissa != 0 || c != '0')
+                digits++;
+            if (digits > MAX_SHORTEST_DIGITS)
+                return Double.NaN;
+            mantissa = mantissa * 10 + (c - '0');
+            if (inFraction)
+                fracDigits++;
+        }
+        var exponent = 0;
+        if (i < to) {
+            if (shortestOnly)
+                return Double.NaN;
+            var c = at(++i);
+            var negativeExp = c == '-';
+            if (c == '-' || c == '+')
+                i++;
+            for (; i < to && exponent < POWERS_OF_TEN.length * 2; i++)
+                exponent = exponent * 10 + (at(i) - '0');
+            if (i < to)
+                return Double.NaN;
+            if (negativeExp)
+                exponent = -exponent;
+        } else if (shortestOnly && fracDigits > 1 && at(to - 1) == '0')
+            return Double.NaN;
+        var scale = exponent - fracDigits;
+        if (Math.abs(scale) >= POWERS_OF_TEN.length)
+            return Double.NaN;
+        var res = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+        if (shortestOnly && res != 0 && (res < 1e-3 || res >= 1e7))
+            return Double.NaN;
+        return at(from) == '-' ? -res : res;
+    }
+
+    /**
+     * Validates a number, whose first character was already read, and moves behind it.
+     *
+     * @return whether the number has neither a fraction nor an exponent.
+     */
+    final boolean skipNumber() {
+        var intStart = at(pos - 1) == '-' ? pos : pos - 1;
+        var i = skipDigits(intStart);
+        if (i == intStart || (at(intStart) == '0' && i - intStart > 1))
+            throw error("Invalid number");
+        var integral = true;
+        if (i < end && at(i) == '.') {
+            integral = false;
+            var fracStart = ++i;
+            i = skipDigits(i);
+            if (i == fracStart)
+                throw error("Invalid number, expected digits after '.'");
+        }
+        if (i < end && (at(i) == 'e' || at(i) == 'E')) {
+            integral = false;
+            if (++i < end && (at(i) == '+' || at(i) == '-'))
+                i++;
+            var expStart = i;
+            i = skipDigits(i);
+            if (i == expStart)
+                throw error("Invalid number, expected digits in exponent");
+        }
+        pos = i;
+        return integral;
+    }
+
+    /** Validates a string, whose opening quote was already read, and moves behind the closing quote without decoding it. */
+    void skipString() {
+        while (pos < end) {
+            var c = at(pos++);
+            if (c == '"')
+                return;
+            if (c == '\\')
+                parseEscape();
+            else if (c < 0x20)
+                throw error("Unescaped control character in string");
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * Checks whether the string starting behind the quote at the passed index equals the passed string.
+     * The string is only decoded, if it contains escapes or non-ascii characters.
+     */
+    final boolean stringEquals(int from, String str) {
+        var i = from;
+        for (var k = 0; k < str.length(); k++, i++) {
+            var c = i < end ? at(i) : -1;
+            if (c == '\\' || c >= 0x80) {
+                var oldPos = pos;
+                pos = from;
+                var decoded = parseString();
+                pos = oldPos;
+                return decoded.equals(str);
+            }
+            if (c != str.charAt(k))
+                return false;
+        }
+        return i < end && at(i) == '"';
+    }
+
+    private int skipDigits(int i) {
+        while (i < end && at(i) >= '0' && at(i) <= '9')
+            i++;
+        return i;
+    }
+
+    /** Parses the four hex digits of a unicode escape sequence. */
+    final char parseUnicodeEscape() {
+        if (pos + 4 > end)
+            throw error("Unterminated unicode escape sequence");
+        var res = 0;
+        for (var escEnd = pos + 4; pos < escEnd; pos++) {
+            var digit = Character.digit(at(pos), 16);
+            if (digit < 0)
+                throw error("Invalid unicode escape sequence");
+            res = (res << 4) | digit;
+        }
+        return (char) res;
+    }
+
+    /** Parses an escape sequence, whose backslash was already read. */
+    final char parseEscape() {
+        if (pos >= end)
+            throw error("Unterminated escape sequence");
+        return switch (at(pos++)) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> parseUnicodeEscape();
+            default -> throw error("Invalid escape sequence");
+        };
+    }
+
+    // ==== WHITESPACE ======================================================= //
+
+    /** Skips whitespace and returns the new position. */
+    final int skipWhitespace() {
+        while (pos < end) {
+            var c = at(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                break;
+            pos++;
+        }
+        return pos;
+    }
+
+    /** Returns the next non-whitespace character without consuming it or -1 at the end of input. */
+    final int peekNonWhitespace() {
+        return skipWhitespace() < end ? at(pos) : -1;
+    }
+
+    /** Consumes the next non-whitespace character. */
+    final int nextNonWhitespace() {
+        if (skipWhitespace() >= end)
+            throw error("Unexpected end of input");
+        return at(pos++);
+    }
+
+    // ==== ERRORS =========================================================== //
+
+    final JsonParseException unexpected(int c, String expected) {
+        pos--;
+        return error("Unexpected character '" + (char) c + "', expected " + expected);
+    }
+
+    final JsonParseException error(String message) {
+        return new JsonParseException(message, pos - start);
+    }
+
+}
\ No newline at end of file
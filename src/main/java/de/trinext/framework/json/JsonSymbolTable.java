@@ -0,0 +1,126 @@
+package de.trinext.framework.json;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache, through which the parsers canonicalize object keys and optionally short string values,
+ * so that the same name repeated in many objects is only decoded once and shares one {@link String}.
+ * Because the shared strings cache their hash code, keys are also only hashed once.
+ * <p>
+ * Strings are looked up by their raw input, before anything gets decoded.
+ * Only short strings made of plain ascii without escapes are cached.
+ * Each string has exactly one slot, determined by its hash code, and replaces the string in it on a miss,
+ * so the table never grows beyond its capacity.
+ * <p>
+ * Tables are thread-safe and can be shared between parsers running at the same time.
+ * Parsers only use a table, when it is passed to them, otherwise every key is decoded on its own.
+ *
+ * @author Dennis Woithe
+ * @see Json#treeFromString(String, JsonSymbolTable)
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JsonSymbolTable {
+
+    /** Keys up to this length are cached. */
+    static final int MAX_KEY_LENGTH = 64;
+
+    private static final JsonSymbolTable SHARED = new JsonSymbolTable(4096);
+
+    // Only ever holds immutable strings, so racing writes can never expose a broken entry
+    private final String[] slots;
+
+    private final int maxValueLength;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    // ==== CONSTRUCTORS ===================================================== //
+
+    /**
+     * Creates a table for keys.
+     *
+     * @param capacity the maximum amount of cached strings, rounded up to a power of two.
+     */
+    public JsonSymbolTable(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates a table for keys and short string values.
+     *
+     * @param capacity the maximum amount of cached strings, rounded up to a power of two.
+     * @param maxValueLength string values up to this length (at most 64) are cached too.
+     */
+    public JsonSymbolTable(int capacity, int maxValueLength) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        if (maxValueLength < 0)
+            throw new IllegalArgumentException("Invalid max value length " + maxValueLength);
+        var size = 1;
+        while (size < capacity)
+            size <<= 1;
+        this.slots = new String[size];
+        this.maxValueLength = Math.min(maxValueLength, MAX_KEY_LENGTH);
+    }
+
+    /** A table for keys, that can be passed to all parsers, that do not need one of their own. */
+    public static JsonSymbolTable shared() {
+        return SHARED;
+    }
+
+    // ==== GETTERS ========================================================== //
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public int maxValueLength() {
+        return maxValueLength;
+    }
+
+    /** The amount of lookups, that found their string in the table. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** The amount of lookups, that had to decode a new string. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    // ==== LOOKUP =========================================================== //
+
+    /**
+     * Returns the string for a range of plain ascii input, creating and caching it on a miss.
+     *
+     * @param hash the {@link String#hashCode()} of the range.
+     */
+    String lookup(JsonSourceParser source, int from, int to, int hash) {
+        var slot = (hash ^ (hash >>> 16)) & (slots.length - 1);
+        var cached = slots[slot];
+        if (cached != null && cached.hashCode() == hash && matches(cached, source, from, to)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        var res = source.asciiText(from, to);
+        slots[slot] = res;
+        return res;
+    }
+
+    private static boolean matches(String cached, JsonSourceParser source, int from, int to) {
+        if (cached.length() != to - from)
+            return false;
+        for (var i = 0; i < cached.length(); i++)
+            if (cached.charAt(i) != source.at(from + i))
+                return false;
+        return true;
+    }
+
+}
\ No newline at end of file
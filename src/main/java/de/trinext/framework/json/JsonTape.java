@@ -0,0 +1,200 @@
+package de.trinext.framework.json;
+
+import java.util.Arrays;
+
+/**
+ * A compact structural index of a json document, from which {@link JsonElement}s are only created when visited.
+ * <p>
+ * The document is validated and indexed once into a tape of longs, each holding the type in its highest byte
+ * and a payload in the remaining bytes:
+ * <ul>
+ *     <li>Objects and arrays take two entries: the tape index behind their last child and the amount of children.
+ *     Their children directly follow them, for objects as alternating key and value entries.</li>
+ *     <li>Keys, strings and numbers take one entry: the source index where they start.</li>
+ *     <li>Literals take one entry without payload.</li>
+ * </ul>
+ * The tape keeps the parser and its source alive until all containers of the lazy tree were materialized.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonTape {
+
+    static final int //
+            OBJECT = 1,
+            ARRAY = 2,
+            KEY = 3,
+            STRING = 4,
+            NUMBER = 5,
+            TRUE = 6,
+            FALSE = 7,
+            NULL = 8;
+
+    private static final int TYPE_SHIFT = 56;
+
+    private static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+
+    private final JsonSourceParser source;
+
+    private long[] tape = new long[64];
+
+    private int size;
+
+    private JsonTape(JsonSourceParser source) {
+        this.source = source;
+    }
+
+    // ==== INDEXING ========================================================= //
+
+    /** Validates the whole input of the parser and indexes its structure. */
+    @SuppressWarnings({"OverlyComplexMethod", "OverlyLongMethod"})
+    static JsonTape index(JsonSourceParser source) {
+        var res = new JsonTape(source);
+        // The tape indexes and child counts of each open container
+        var containers = new int[16];
+        var counts = new int[16];
+        var depth = 0;
+        while (true) {
+            // Index the next value
+            var c = source.nextNonWhitespace();
+            var valueStart = source.pos - 1;
+            if (c == '{' || c == '[') {
+                var isObject = c == '{';
+                var idx = res.append(isObject ? OBJECT : ARRAY, 0);
+                res.append(0, 0);
+                if (source.peekNonWhitespace() != (isObject ? '}' : ']')) {
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+                    containers[depth] = idx;
+                    counts[depth++] = 0;
+                    if (isObject)
+                        res.indexKey();
+                    continue;
+                }
+                source.pos++;
+                res.close(idx, 0);
+            } else
+                switch (c) {
+                    case '"' -> {
+                        res.append(STRING, valueStart);
+                        source.skipString();
+                    }
+                    case 't' -> {
+                        source.parseLiteral("true");
+                        res.append(TRUE, 0);
+                    }
+                    case 'f' -> {
+                        source.parseLiteral("false");
+                        res.append(FALSE, 0);
+                    }
+                    case 'n' -> {
+                        source.parseLiteral("null");
+                        res.append(NULL, 0);
+                    }
+                    case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                        res.append(NUMBER, valueStart);
+                        source.skipNumber();
+                    }
+                    default -> throw source.unexpected(c, "a value");
+                }
+            // Read the separator or close all finished containers
+            while (true) {
+                if (depth == 0) {
+                    if (source.skipWhitespace() < source.end)
+                        throw source.error("Unexpected trailing character '" + (char) source.at(source.pos) + "'");
+                    return res;
+                }
+                counts[depth - 1]++;
+                var isObject = res.type(containers[depth - 1]) == OBJECT;
+                c = source.nextNonWhitespace();
+                if (c == ',') {
+                    if (isObject)
+                        res.indexKey();
+                    break;
+                }
+                if (c != (isObject ? '}' : ']'))
+                    throw source.unexpected(c, isObject ? "',' or '}'" : "',' or ']'");
+                depth--;
+                res.close(containers[depth], counts[depth]);
+            }
+        }
+    }
+
+    private void indexKey() {
+        var c = source.nextNonWhitespace();
+        if (c != '"')
+            throw source.unexpected(c, "'\"'");
+        append(KEY, source.pos - 1);
+        source.skipString();
+        c = source.nextNonWhitespace();
+        if (c != ':')
+            throw source.unexpected(c, "':'");
+    }
+
+    private int append(int type, long payload) {
+        if (size == tape.length)
+            tape = Arrays.copyOf(tape, size * 2);
+        tape[size] = ((long) type << TYPE_SHIFT) | payload;
+        return size++;
+    }
+
+    private void close(int containerIdx, int childCount) {
+        tape[containerIdx] |= size;
+        tape[containerIdx + 1] = childCount;
+    }
+
+    // ==== NAVIGATION ======================================================= //
+
+    int type(int idx) {
+        return (int) (tape[idx] >>> TYPE_SHIFT);
+    }
+
+    /** Returns the amount of children of the container at the passed index. */
+    int childCount(int containerIdx) {
+        return (int) tape[containerIdx + 1];
+    }
+
+    /** Returns the index of the first child of the container at the passed index. */
+    static int firstChild(int containerIdx) {
+        return containerIdx + 2;
+    }
+
+    /** Returns the index behind the value at the passed index, including all of its children. */
+    int next(int idx) {
+        var type = type(idx);
+        return type == OBJECT || type == ARRAY
+               ? (int) (tape[idx] & PAYLOAD_MASK)
+               : idx + 1;
+    }
+
+    // ==== MATERIALIZATION ================================================== //
+
+    /** Creates the element at the passed index. Containers are created lazily. */
+    JsonElement<?> element(int idx) {
+        return switch (type(idx)) {
+            case OBJECT -> new JsonMap(this, idx);
+            case ARRAY -> new JsonList(this, idx);
+            case TRUE -> JsonBool.TRUE;
+            case FALSE -> JsonBool.FALSE;
+            case NULL -> JsonNull.NULL;
+            default -> source.parseValueAt(sourceIdx(idx));
+        };
+    }
+
+    /** Decodes the key or string at the passed index. */
+    String string(int idx) {
+        source.pos = sourceIdx(idx) + 1;
+        return type(idx) == KEY ? source.parseKeyString() : source.parseString();
+    }
+
+    /** Checks whether the key at the passed index equals the passed key, without decoding it if possible. */
+    boolean keyEquals(int idx, String key) {
+        return source.stringEquals(sourceIdx(idx) + 1, key);
+    }
+
+    private int sourceIdx(int idx) {
+        return (int) (tape[idx] & PAYLOAD_MASK);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package de.trinext.framework.json;
+
+import java.util.*;
+
+/**
+ * The storage of a lazily parsed {@link JsonList}, that only creates the elements that are accessed.
+ * <p>
+ * The first modification materializes all elements into a regular {@link ArrayList}.
+ *
+ * @author Dennis Woithe
+ * @see JsonTape
+ */
+final class JsonTapeList extends AbstractList<JsonElement<?>> implements RandomAccess {
+
+    private JsonTape tape;
+
+    private final int listIdx;
+
+    /** The tape index of each element, which are only found on the first access. */
+    private int[] elemIndexes;
+
+    /** The already created elements. */
+    private JsonElement<?>[] elems;
+
+    private ArrayList<JsonElement<?>> materialized;
+
+    JsonTapeList(JsonTape tape, int listIdx) {
+        this.tape = tape;
+        this.listIdx = listIdx;
+        elems = new JsonElement<?>[tape.childCount(listIdx)];
+    }
+
+    @Override
+    public JsonElement<?> get(int index) {
+        if (materialized != null)
+            return materialized.get(index);
+        Objects.checkIndex(index, elems.length);
+        var elem = elems[index];
+        if (elem == null)
+            elems[index] = elem = tape.element(elemIndexes()[index]);
+        return elem;
+    }
+
+    private int[] elemIndexes() {
+        if (elemIndexes == null) {
+            var res = new int[elems.length];
+            for (int i = 0, idx = JsonTape.firstChild(listIdx); i < res.length; i++, idx = tape.next(idx))
+                res[i] = idx;
+            elemIndexes = res;
+        }
+        return elemIndexes;
+    }
+
+    @Override
+    public int size() {
+        return materialized != null ? materialized.size() : elems.length;
+    }
+
+    @Override
+    public JsonElement<?> set(int index, JsonElement<?> element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, JsonElement<?> element) {
+        modCount++;
+        materialize().add(index, element);
+    }
+
+    @Override
+    public JsonElement<?> remove(int index) {
+        modCount++;
+        return materialize().remove(index);
+    }
+
+    private ArrayList<JsonElement<?>> materialize() {
+        if (materialized == null) {
+            var res = new ArrayList<JsonElement<?>>(elems.length);
+            for (var i = 0; i < elems.length; i++)
+                res.add(get(i));
+            materialized = res;
+            tape = null;
+            elemIndexes = null;
+            elems = null;
+        }
+        return materialized;
+    }
+
+    /** Adds the containers, that were already created, without creating any others. */
+    void addCreatedContainers(Collection<JsonContainer<?>> out) {
+        var created = materialized != null ? materialized : Arrays.asList(elems);
+        for (var elem : created)
+            if (elem instanceof JsonContainer<?> container)
+                out.add(container);
+    }
+
+}
\ No newline at end of file
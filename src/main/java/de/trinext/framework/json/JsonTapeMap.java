@@ -0,0 +1,194 @@
+package de.trinext.framework.json;
+
+import java.util.*;
+
+/**
+ * The storage of a lazily parsed {@link JsonMap}, that only creates the values that are looked up by key.
+ * <p>
+ * The first lookup compares the keys directly on the tape without decoding them, in a single scan over the fields.
+ * Further lookups in larger maps decode the keys once into an index, so that many lookups don't scan the fields again.
+ * Counting only decodes the keys once, to leave out duplicates.
+ * Everything else, like iterating or modifying, materializes all fields into a regular {@link LinkedHashMap}.
+ *
+ * @author Dennis Woithe
+ * @see JsonTape
+ */
+final class JsonTapeMap extends AbstractMap<String, JsonElement<?>> implements SequencedMap<String, JsonElement<?>> {
+
+    /** The amount of fields up to which a lookup always scans the fields. */
+    private static final int MAX_SCANNED_FIELDS = 8;
+
+    /** The amount of lookups that scan the fields, before the keys get indexed. */
+    private static final int MAX_SCANS = 1;
+
+    private JsonTape tape;
+
+    private final int mapIdx;
+
+    /** The already created values by the position of their field. */
+    private JsonElement<?>[] values;
+
+    /** The amount of distinct keys or -1, until it is counted. */
+    private int size;
+
+    private int scans;
+
+    /** The position of the field by its key, where the last duplicate wins, or null until indexed. */
+    private HashMap<String, Integer> fieldsByKey;
+
+    /** The tape index of the value by the position of its field, or null until indexed. */
+    private int[] valueIdxs;
+
+    private LinkedHashMap<String, JsonElement<?>> materialized;
+
+    JsonTapeMap(JsonTape tape, int mapIdx) {
+        this.tape = tape;
+        this.mapIdx = mapIdx;
+        values = new JsonElement<?>[tape.childCount(mapIdx)];
+        // Only several fields can repeat a key
+        size = values.length <= 1 ? values.length : -1;
+    }
+
+    @Override
+    public JsonElement<?> get(Object key) {
+        if (materialized != null)
+            return materialized.get(key);
+        if (!(key instanceof String strKey))
+            return null;
+        if (isIndexed()) {
+            var field = fieldsByKey.get(strKey);
+            return field == null ? null : value(field, valueIdxs[field]);
+        }
+        // Duplicate keys are resolved like in a parsed tree: the last one wins
+        int field = -1, valueIdx = -1;
+        var idx = JsonTape.firstChild(mapIdx);
+        for (var i = 0; i < values.length; i++) {
+            if (tape.keyEquals(idx, strKey)) {
+                field = i;
+                valueIdx = idx + 1;
+            }
+            idx = tape.next(idx + 1);
+        }
+        return field < 0 ? null : value(field, valueIdx);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (materialized != null)
+            return materialized.containsKey(key);
+        if (!(key instanceof String strKey))
+            return false;
+        if (isIndexed())
+            return fieldsByKey.containsKey(strKey);
+        var idx = JsonTape.firstChild(mapIdx);
+        for (var i = 0; i < values.length; i++, idx = tape.next(idx + 1))
+            if (tape.keyEquals(idx, strKey))
+                return true;
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return materialized != null ? materialized.isEmpty() : values.length == 0;
+    }
+
+    @Override
+    public int size() {
+        if (materialized != null)
+            return materialized.size();
+        if (size < 0 && fieldsByKey != null)
+            size = fieldsByKey.size();
+        if (size < 0) {
+            var keys = HashSet.<String>newHashSet(values.length);
+            var idx = JsonTape.firstChild(mapIdx);
+            for (var i = 0; i < values.length; i++, idx = tape.next(idx + 1))
+                keys.add(tape.string(idx));
+            size = keys.size();
+        }
+        return size;
+    }
+
+    @Override
+    public JsonElement<?> put(String key, JsonElement<?> value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public JsonElement<?> remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public Set<Entry<String, JsonElement<?>>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    @Override
+    public JsonElement<?> putFirst(String key, JsonElement<?> value) {
+        return materialize().putFirst(key, value);
+    }
+
+    @Override
+    public JsonElement<?> putLast(String key, JsonElement<?> value) {
+        return materialize().putLast(key, value);
+    }
+
+    @Override
+    public SequencedMap<String, JsonElement<?>> reversed() {
+        return materialize().reversed();
+    }
+
+    /** Indexes the keys, once a larger map was looked up often enough, and returns whether it is indexed. */
+    private boolean isIndexed() {
+        if (fieldsByKey == null && values.length > MAX_SCANNED_FIELDS && scans++ >= MAX_SCANS) {
+            var res = HashMap.<String, Integer>newHashMap(values.length);
+            valueIdxs = new int[values.length];
+            var idx = JsonTape.firstChild(mapIdx);
+            for (var field = 0; field < values.length; field++) {
+                res.put(tape.string(idx), field);
+                valueIdxs[field] = idx + 1;
+                idx = tape.next(idx + 1);
+            }
+            fieldsByKey = res;
+        }
+        return fieldsByKey != null;
+    }
+
+    private JsonElement<?> value(int field, int valueIdx) {
+        var value = values[field];
+        if (value == null)
+            values[field] = value = tape.element(valueIdx);
+        return value;
+    }
+
+    private LinkedHashMap<String, JsonElement<?>> materialize() {
+        if (materialized == null) {
+            var res = LinkedHashMap.<String, JsonElement<?>>newLinkedHashMap(values.length);
+            var idx = JsonTape.firstChild(mapIdx);
+            for (var field = 0; field < values.length; field++) {
+                res.put(tape.string(idx), value(field, idx + 1));
+                idx = tape.next(idx + 1);
+            }
+            materialized = res;
+            tape = null;
+            values = null;
+            fieldsByKey = null;
+            valueIdxs = null;
+        }
+        return materialized;
+    }
+
+    /** Adds the containers, that were already created, without creating any others. */
+    void addCreatedContainers(Collection<JsonContainer<?>> out) {
+        var created = materialized != null ? materialized.values() : Arrays.asList(values);
+        for (var elem : created)
+            if (elem instanceof JsonContainer<?> container)
+                out.add(container);
+    }
+
+}
\ No newline at end of file
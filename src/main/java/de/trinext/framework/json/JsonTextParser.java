@@ -1,22 +1,74 @@
 package de.trinext.framework.json;
 
-import com.google.gson.JsonParser;
-
 /**
+ * Parses json text directly into a tree of {@link JsonElement}s.
+ *
  * @author Dennis Woithe
  */
-@SuppressWarnings("ClassCanBeRecord")
-class JsonTextParser {
+class JsonTextParser extends JsonSourceParser {
 
     private final String json;
 
     JsonTextParser(String json) {
+        super(0, json.length());
+        this.json = json;
+    }
+
+    private JsonTextParser(String json, int from, int to) {
+        super(0, from, to);
         this.json = json;
     }
 
-    @SuppressWarnings("deprecation")
-    JsonElement<?> parse() {
-        return new JsonGsonParser(JsonParser.parseString(json)).parse();
+    @Override
+    int at(int idx) {
+        return json.charAt(idx);
+    }
+
+    @Override
+    String asciiText(int from, int to) {
+        return json.substring(from, to);
+    }
+
+    @Override
+    JsonSourceParser slice(int from, int to) {
+        var res = new JsonTextParser(json, from, to);
+        res.symbols = symbols;
+        return res;
+    }
+
+    @Override
+    String parseString() {
+        var strStart = pos;
+        // Fast path: strings without escapes are returned as a substring
+        for (var i = strStart; i < end; i++) {
+            var c = json.charAt(i);
+            if (c == '"') {
+                pos = i + 1;
+                return json.substring(strStart, i);
+            }
+            if (c == '\\')
+                return parseEscapedString(strStart, i);
+            if (c < 0x20)
+                throw error("Unescaped control character in string");
+        }
+        throw error("Unterminated string");
+    }
+
+    private String parseEscapedString(int strStart, int firstEscape) {
+        var sb = new StringBuilder(firstEscape - strStart + 16).append(json, strStart, firstEscape);
+        pos = firstEscape;
+        while (pos < end) {
+            var c = json.charAt(pos++);
+            if (c == '"')
+                return sb.toString();
+            if (c == '\\')
+                sb.append(parseEscape());
+            else if (c < 0x20)
+                throw error("Unescaped control character in string");
+            else
+                sb.append(c);
+        }
+        throw error("Unterminated string");
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package de.trinext.framework.json;
+
+/**
+ * The kinds of tokens a {@link JsonReader} can encounter.
+ *
+ * @author Dennis Woithe
+ */
+public enum JsonToken {
+
+    /** The opening brace of an object. */
+    BEGIN_OBJECT,
+    /** The closing brace of an object. */
+    END_OBJECT,
+    /** The opening bracket of an array. */
+    BEGIN_ARRAY,
+    /** The closing bracket of an array. */
+    END_ARRAY,
+    /** The name of an object field. */
+    NAME,
+    /** A string value. */
+    STRING,
+    /** A number value. */
+    NUMBER,
+    /** A boolean value. */
+    BOOLEAN,
+    /** The null value. */
+    NULL,
+    /** The end of the input. */
+    END_DOCUMENT
+
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package de.trinext.framework.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+
+/**
+ * A {@link JsonHandler} that builds a tree of {@link JsonElement}s from the parsed events.
+ * <p>
+ * Nesting is tracked with an explicit stack instead of recursion,
+ * so arbitrarily deep documents can not overflow the call stack.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonTreeBuilder implements JsonHandler {
+
+    private final ArrayDeque<JsonContainer<?>> parents = new ArrayDeque<>();
+
+    /** The name of the field, whose value comes next. */
+    private String pendingKey;
+
+    private JsonElement<?> result;
+
+    /** Returns the root of the built tree. */
+    JsonElement<?> result() {
+        return result;
+    }
+
+    private void add(JsonElement<?> elem) {
+        switch (parents.peek()) {
+            case null -> result = elem;
+            case JsonMap map -> map.value.put(pendingKey, elem);
+            case JsonList list -> list.value.add(elem);
+        }
+    }
+
+    @Override
+    public void startObject() {
+        var map = new JsonMap();
+        add(map);
+        parents.push(map);
+    }
+
+    @Override
+    public void endObject() {
+        parents.pop();
+    }
+
+    @Override
+    public void startArray() {
+        var list = new JsonList();
+        add(list);
+        parents.push(list);
+    }
+
+    @Override
+    public void endArray() {
+        parents.pop();
+    }
+
+    @Override
+    public void key(CharSequence key) {
+        pendingKey = key.toString();
+    }
+
+    @Override
+    public void value(CharSequence value) {
+        add(JsonString.from(value));
+    }
+
+    @Override
+    public void value(long value) {
+        add(JsonInteger.parsed(value));
+    }
+
+    @Override
+    public void value(double value) {
+        add(JsonDecimal.parsed(value));
+    }
+
+    /**
+     * Called by the parser instead of {@link #value(BigDecimal)} for a decimal, whose text is exactly
+     * the shortest representation of the double, so that it can be kept without creating a {@link BigDecimal}.
+     */
+    void shortestValue(double value) {
+        add(JsonDecimal.parsed(value));
+    }
+
+    @Override
+    public void value(BigInteger value) {
+        add(JsonInteger.from(value));
+    }
+
+    @Override
+    public void value(BigDecimal value) {
+        add(JsonDecimal.from(value));
+    }
+
+    @Override
+    public void value(boolean value) {
+        add(JsonBool.from(value));
+    }
+
+    @Override
+    public void nullValue() {
+        add(JsonNull.NULL);
+    }
+
+    @Override
+    public boolean exactDecimals() {
+        return true;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,298 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer, into which the json text is encoded as UTF-8 right while it is written,
+ * without creating the text as {@link String} first.
+ * <p>
+ * Each thread keeps one buffer for reuse, so serializing documents of similar sizes does not allocate
+ * any buffers once it has grown. Buffers, that grew beyond {@value #MAX_POOLED_CAPACITY} bytes, are not kept.
+ * Containers, whose size was measured by {@link JsonElement#serializedSize()}, are encoded into an array of exactly that size.
+ * Like {@link String#getBytes(java.nio.charset.Charset)}, unpaired surrogates are encoded as {@code '?'}.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonUtf8Sink implements Appendable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    /** The amount of bytes, after which {@link #writeChunked} passes on the encoded bytes. */
+    static final int CHUNK_SIZE = 8192;
+
+    private static final ThreadLocal<JsonUtf8Sink> POOL = ThreadLocal.withInitial(JsonUtf8Sink::new);
+
+    private byte[] buf;
+
+    private int size;
+
+    /** The high surrogate, whose low surrogate is expected next, or 0. */
+    private char highSurrogate;
+
+    private boolean inUse;
+
+    /** Where {@link #writeChunked} passes the bytes of long texts on while they are appended, or null. */
+    private ChunkConsumer flushTo;
+
+    /** Creates a sink, that is not shared with the thread. */
+    JsonUtf8Sink() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private JsonUtf8Sink(int capacity) {
+        buf = new byte[capacity];
+    }
+
+    // ==== ENCODING ========================================================= //
+
+    /** Encodes a container, whose size was measured, right into an array of that size. */
+    static byte[] toBytes(JsonElement<?> elem) {
+        if (elem instanceof JsonContainer<?> container) {
+            var size = container.size;
+            if (size != null && size.utf8Bytes() < Integer.MAX_VALUE) {
+                var sink = new JsonUtf8Sink((int) size.utf8Bytes());
+                sink.encodeTree(elem);
+                return sink.size == sink.buf.length ? sink.buf : Arrays.copyOf(sink.buf, sink.size);
+            }
+        }
+        var sink = acquire(elem);
+        try {
+            return Arrays.copyOf(sink.buf, sink.size);
+        } finally {
+            sink.release();
+        }
+    }
+
+    /** @throws BufferOverflowException if the text does not fit, leaving the buffer unchanged. */
+    static void write(JsonElement<?> elem, ByteBuffer out) {
+        var sink = acquire(elem);
+        try {
+            if (out.remaining() < sink.size)
+                throw new BufferOverflowException();
+            out.put(sink.buf, 0, sink.size);
+        } finally {
+            sink.release();
+        }
+    }
+
+    /** Streams the text in chunks, so the memory stays bounded for documents of any size. */
+    static void write(JsonElement<?> elem, OutputStream out) throws IOException {
+        writeChunked(elem, JsonWriteOptions.DEFAULT, out::write);
+        out.flush();
+    }
+
+    /** Streams the text in chunks, so the memory stays bounded for documents of any size. */
+    static void write(JsonElement<?> elem, WritableByteChannel out) throws IOException {
+        writeChunked(elem, JsonWriteOptions.DEFAULT, (bytes, offset, length) -> {
+            var chunk = ByteBuffer.wrap(bytes, offset, length);
+            while (chunk.hasRemaining())
+                out.write(chunk);
+        });
+    }
+
+    /** Receives encoded bytes, e.g. {@link OutputStream#write(byte[], int, int)}. */
+    @FunctionalInterface
+    interface ChunkConsumer {
+
+        void accept(byte[] bytes, int offset, int length) throws IOException;
+
+    }
+
+    /**
+     * Encodes the text in the format of the options step by step and passes the bytes on in chunks
+     * of about {@value #CHUNK_SIZE} bytes, so that the buffer stays small for trees of any size.
+     */
+    static void writeChunked(JsonElement<?> elem, JsonWriteOptions options, ChunkConsumer out) throws IOException {
+        var sink = POOL.get();
+        if (sink.inUse)
+            sink = new JsonUtf8Sink();
+        sink.inUse = true;
+        sink.flushTo = out;
+        try {
+            var serializer = new JsonSerializer(elem, options);
+            while (serializer.hasNext()) {
+                serializer.writeNext(sink);
+                if (sink.size >= CHUNK_SIZE) {
+                    out.accept(sink.buf, 0, sink.size);
+                    sink.size = 0;
+                }
+            }
+            sink.finish();
+            if (sink.size > 0)
+                out.accept(sink.buf, 0, sink.size);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            sink.flushTo = null;
+            sink.release();
+        }
+    }
+
+    /** Takes the buffer of this thread, or a new one if it is already taken, and encodes the element into it. */
+    private static JsonUtf8Sink acquire(JsonElement<?> elem) {
+        var sink = POOL.get();
+        if (sink.inUse)
+            sink = new JsonUtf8Sink();
+        sink.inUse = true;
+        sink.encodeTree(elem);
+        return sink;
+    }
+
+    private void encodeTree(JsonElement<?> elem) {
+        try {
+            JsonSerializer.write(elem, this);
+        } catch (IOException e) { // Never thrown by this sink
+            release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        finish();
+    }
+
+    /** Encodes a high surrogate, that was not followed by its low surrogate until the end. */
+    void finish() {
+        if (highSurrogate != 0) {
+            ensureCapacity(1);
+            buf[size++] = '?';
+            highSurrogate = 0;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Returns the bytes encoded so far as a new buffer and empties the sink. */
+    ByteBuffer take() {
+        var res = ByteBuffer.wrap(Arrays.copyOf(buf, size));
+        size = 0;
+        return res;
+    }
+
+    /** Returns the amount of bytes of the UTF-8 encoding of the text. */
+    static long utf8Length(CharSequence text) {
+        return utf8Length(text, 0, text.length());
+    }
+
+    private static long utf8Length(CharSequence text, int start, int end) {
+        long res = end - start;
+        for (var i = start; i < end; i++) {
+            var c = text.charAt(i);
+            if (c >= 0x800)
+                // Surrogate pairs take 4 bytes for 2 chars, unpaired ones become '?'
+                res += Character.isSurrogate(c) ? isPair(text, i) ? 1 : 0 : 2;
+            else if (c >= 0x80)
+                res++;
+        }
+        return res;
+    }
+
+    static boolean isPair(CharSequence text, int idx) {
+        var c = text.charAt(idx);
+        return Character.isHighSurrogate(c)
+                ? idx + 1 < text.length() && Character.isLowSurrogate(text.charAt(idx + 1))
+                : idx > 0 && Character.isHighSurrogate(text.charAt(idx - 1));
+    }
+
+    private void release() {
+        size = 0;
+        highSurrogate = 0;
+        inUse = false;
+        if (buf.length > MAX_POOLED_CAPACITY)
+            buf = new byte[INITIAL_CAPACITY];
+    }
+
+    // ==== APPENDABLE ======================================================= //
+
+    @Override
+    public JsonUtf8Sink append(CharSequence csq) {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public JsonUtf8Sink append(CharSequence csq, int start, int end) {
+        if (flushTo != null && end - start > CHUNK_SIZE) {
+            // Long texts, like memoised ones, are passed on in chunks too, instead of growing the buffer
+            for (var from = start; from < end; from += CHUNK_SIZE) {
+                appendEncoded(csq, from, Math.min(end, from + CHUNK_SIZE));
+                if (size >= CHUNK_SIZE) {
+                    try {
+                        flushTo.accept(buf, 0, size);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    size = 0;
+                }
+            }
+            return this;
+        }
+        return appendEncoded(csq, start, end);
+    }
+
+    private JsonUtf8Sink appendEncoded(CharSequence csq, int start, int end) {
+        // Measured exactly only when the buffer is nearly full, so that presized buffers never grow
+        if (buf.length - size < 3 * (end - start) + 4)
+            ensureCapacity((int) utf8Length(csq, start, end) + (highSurrogate == 0 ? 0 : 3));
+        for (var i = start; i < end; i++) {
+            var c = csq.charAt(i);
+            if (c < 0x80 && highSurrogate == 0)
+                buf[size++] = (byte) c;
+            else
+                encode(c);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonUtf8Sink append(char c) {
+        ensureCapacity(c < 0x80 && highSurrogate == 0 ? 1 : 4);
+        encode(c);
+        return this;
+    }
+
+    private void encode(char c) {
+        if (highSurrogate != 0) {
+            var high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                var codePoint = Character.toCodePoint(high, c);
+                buf[size++] = (byte) (0xF0 | codePoint >> 18);
+                buf[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buf[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buf[size++] = (byte) (0x80 | codePoint & 0x3F);
+                return;
+            }
+            buf[size++] = '?';
+        }
+        if (c < 0x80)
+            buf[size++] = (byte) c;
+        else if (c < 0x800) {
+            buf[size++] = (byte) (0xC0 | c >> 6);
+            buf[size++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c))
+            highSurrogate = c;
+        else if (Character.isLowSurrogate(c))
+            buf[size++] = '?';
+        else {
+            buf[size++] = (byte) (0xE0 | c >> 12);
+            buf[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buf[size++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (buf.length - size < additional)
+            buf = Arrays.copyOf(buf, Math.max(2 * buf.length, size + additional));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package de.trinext.framework.json;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The vectorized implementation of {@link JsonByteScanner}.
+ * Must only be loaded if the module {@code jdk.incubator.vector} is available.
+ *
+ * @author Dennis Woithe
+ */
+final class JsonVectorScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private JsonVectorScanner() { throw new AssertionError(); }
+
+    /** Whether the cpu has vector registers of at least 128 bits, below which the scalar loop is faster. */
+    static boolean isSupported() {
+        return SPECIES.vectorBitSize() >= 128;
+    }
+
+    /** @see JsonByteScanner#indexOfSpecial(byte[], int, int) */
+    static int indexOfSpecial(byte[] bytes, int from, int to) {
+        var i = from;
+        for (var bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+            var vec = ByteVector.fromArray(SPECIES, bytes, i);
+            var special = vec.eq((byte) '"')
+                    .or(vec.eq((byte) '\\'))
+                    .or(vec.compare(VectorOperators.UNSIGNED_LT, (byte) 0x20));
+            if (special.anyTrue())
+                return i + special.firstTrue();
+        }
+        return JsonByteScanner.indexOfSpecialScalar(bytes, i, to);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+
+/**
+ * The format, in which the json text is written by {@link JsonElement#writeTo(Appendable, JsonWriteOptions)}
+ * and {@link JsonElement#toString(JsonWriteOptions)}.
+ * <p>
+ * Options are immutable, every {@code with} method returns new options.
+ * <pre>{@code
+ * tree.toString(JsonWriteOptions.pretty(2).withSortedKeys());
+ * }</pre>
+ *
+ * @author Dennis Woithe
+ */
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class JsonWriteOptions {
+
+    /** The format of {@link JsonElement#toString()}: one line, elements separated by {@code ", "}. */
+    public static final JsonWriteOptions DEFAULT = new JsonWriteOptions(-1, true, false, false, false);
+
+    /** One line without any whitespace. */
+    public static final JsonWriteOptions COMPACT = new JsonWriteOptions(-1, false, false, false, false);
+
+    /** The canonical json of RFC 8785: compact, sorted keys, minimal escapes and numbers written like JavaScript does. */
+    static final JsonWriteOptions CANONICAL = new JsonWriteOptions(-1, false, true, false, true);
+
+    private static final String SPACES = " ".repeat(64);
+
+    /** The amount of spaces per level or -1, if everything is written in one line. */
+    private final int indentWidth;
+
+    private final boolean spaced;
+
+    private final boolean sortedKeys;
+
+    private final boolean asciiOnly;
+
+    private final boolean canonical;
+
+    private JsonWriteOptions(int indentWidth, boolean spaced, boolean sortedKeys, boolean asciiOnly, boolean canonical) {
+        this.indentWidth = indentWidth;
+        this.spaced = spaced;
+        this.sortedKeys = sortedKeys;
+        this.asciiOnly = asciiOnly;
+        this.canonical = canonical;
+    }
+
+    // ==== OPTIONS ========================================================== //
+
+    /**
+     * Every element and field in its own line, indented by its depth, and names followed by {@code ": "}.
+     * Empty objects and arrays stay in one line.
+     *
+     * @param indentWidth the amount of spaces per level.
+     */
+    public static JsonWriteOptions pretty(int indentWidth) {
+        if (indentWidth < 0)
+            throw new IllegalArgumentException("Invalid indent width " + indentWidth);
+        return new JsonWriteOptions(indentWidth, true, false, false, false);
+    }
+
+    /** Writes the fields of objects in the order of their names, instead of their insertion order. */
+    public JsonWriteOptions withSortedKeys() {
+        return new JsonWriteOptions(indentWidth, spaced, true, asciiOnly, canonical);
+    }
+
+    /** Escapes every character beyond ascii as {@code \\uXXXX}, so that the text is plain ascii. */
+    public JsonWriteOptions withAsciiOnly() {
+        return new JsonWriteOptions(indentWidth, spaced, sortedKeys, true, canonical);
+    }
+
+    public boolean isPretty() {
+        return indentWidth >= 0;
+    }
+
+    public boolean isSortedKeys() {
+        return sortedKeys;
+    }
+
+    public boolean isAsciiOnly() {
+        return asciiOnly;
+    }
+
+    /** Whether the text is the one of {@link JsonElement#toString()}, which containers memoise. */
+    boolean isDefault() {
+        return indentWidth < 0 && spaced && !sortedKeys && !asciiOnly && !canonical;
+    }
+
+    boolean isCanonical() {
+        return canonical;
+    }
+
+    // ==== FORMATTING ======================================================= //
+
+    /** Writes the whitespace after the opening bracket of a container, which is not empty. */
+    void writeOpened(Appendable out, int depth) throws IOException {
+        if (indentWidth >= 0)
+            writeNewLine(out, depth);
+    }
+
+    /** Writes the separator between two elements or fields, whose depth is given. */
+    void writeSeparator(Appendable out, int depth) throws IOException {
+        if (indentWidth >= 0) {
+            out.append(',');
+            writeNewLine(out, depth);
+        } else
+            out.append(spaced ? ", " : ",");
+    }
+
+    /** Writes the whitespace before the closing bracket of a container, which is not empty. */
+    void writeClosing(Appendable out, int depth) throws IOException {
+        if (indentWidth >= 0)
+            writeNewLine(out, depth);
+    }
+
+    /** Writes the separator between a name and its value. */
+    void writeNameSeparator(Appendable out) throws IOException {
+        out.append(indentWidth >= 0 ? ": " : ":");
+    }
+
+    void writeString(CharSequence str, Appendable out) throws IOException {
+        if (canonical)
+            JsonEscaper.writeCanonical(str, out);
+        else
+            JsonEscaper.write(str, out, asciiOnly);
+    }
+
+    private void writeNewLine(Appendable out, int depth) throws IOException {
+        out.append('\n');
+        for (var spaces = (long) depth * indentWidth; spaces > 0; spaces -= SPACES.length())
+            out.append(SPACES, 0, (int) Math.min(spaces, SPACES.length()));
+    }
+
+    @Override
+    public String toString() {
+        return "JsonWriteOptions[indentWidth=" + indentWidth + ", spaced=" + spaced
+               + ", sortedKeys=" + sortedKeys + ", asciiOnly=" + asciiOnly + ", canonical=" + canonical + ']';
+    }
+
+}
\ No newline at end of file
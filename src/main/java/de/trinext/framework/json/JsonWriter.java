@@ -0,0 +1,250 @@
+package de.trinext.framework.json;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A generator, that writes a json document token by token, without building a tree of {@link JsonElement}s.
+ * <p>
+ * Only a fixed size buffer and the nesting of the open objects and arrays are held in memory,
+ * so documents of any size can be written with constant memory.
+ * Existing trees can be embedded as values with {@link #value(JsonElement)}.
+ * The text is the same as the {@link JsonElement#toString(JsonWriteOptions)} of the equivalent tree
+ * with the options of the writer, except for sorted keys, which only apply to embedded trees.
+ * Without options, it is the same as the {@link JsonElement#toString()}.
+ * <pre>{@code
+ * try (var writer = new JsonWriter(outputStream)) {
+ *     writer.beginArray();
+ *     for (var row : rows)
+ *         writer.beginObject().name("id").value(row.id()).name("data").value(row.data()).endObject();
+ *     writer.endArray();
+ * }
+ * }</pre>
+ *
+ * @author Dennis Woithe
+ * @see JsonReader
+ */
+@SuppressWarnings({"unused", "WeakerAccess", "UnusedReturnValue"})
+public final class JsonWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Scopes on the nesting stack
+    private static final int //
+            EMPTY_DOCUMENT = 0,
+            NONEMPTY_DOCUMENT = 1,
+            EMPTY_ARRAY = 2,
+            NONEMPTY_ARRAY = 3,
+            EMPTY_OBJECT = 4,
+            NONEMPTY_OBJECT = 5,
+            DANGLING_NAME = 6;
+
+    private final Writer out;
+
+    private final JsonWriteOptions options;
+
+    private int[] stack = new int[32];
+
+    private int stackSize = 1;
+
+    // ==== CONSTRUCTORS ===================================================== //
+
+    /** Creates a writer of json text. */
+    public JsonWriter(Writer out) {
+        this(out, JsonWriteOptions.DEFAULT);
+    }
+
+    /** Creates a writer of UTF-8 encoded json. */
+    public JsonWriter(OutputStream out) {
+        this(out, JsonWriteOptions.DEFAULT);
+    }
+
+    /** Creates a writer of UTF-8 encoded json. */
+    public JsonWriter(WritableByteChannel out) {
+        this(out, JsonWriteOptions.DEFAULT);
+    }
+
+    /** Creates a writer of json text in the format of the options. */
+    public JsonWriter(Writer out, JsonWriteOptions options) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+        this.options = options;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /** Creates a writer of UTF-8 encoded json in the format of the options. */
+    public JsonWriter(OutputStream out, JsonWriteOptions options) {
+        this(new OutputStreamWriter(out, UTF_8), options);
+    }
+
+    /** Creates a writer of UTF-8 encoded json in the format of the options. */
+    public JsonWriter(WritableByteChannel out, JsonWriteOptions options) {
+        this(Channels.newWriter(out, UTF_8), options);
+    }
+
+    // ==== TOKENS =========================================================== //
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        out.write('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        var scope = stack[stackSize - 1];
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT)
+            throw new IllegalStateException(scope == DANGLING_NAME ? "Expected a value for the name" : "Not in an object");
+        stackSize--;
+        if (scope == NONEMPTY_OBJECT)
+            options.writeClosing(out, stackSize - 1);
+        out.write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        out.write('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        var scope = stack[stackSize - 1];
+        if (scope != EMPTY_ARRAY && scope != NONEMPTY_ARRAY)
+            throw new IllegalStateException("Not in an array");
+        stackSize--;
+        if (scope == NONEMPTY_ARRAY)
+            options.writeClosing(out, stackSize - 1);
+        out.write(']');
+        return this;
+    }
+
+    /** Writes the name of the next object field. */
+    public JsonWriter name(CharSequence name) throws IOException {
+        var scope = stack[stackSize - 1];
+        if (scope == NONEMPTY_OBJECT)
+            options.writeSeparator(out, stackSize - 1);
+        else if (scope == EMPTY_OBJECT)
+            options.writeOpened(out, stackSize - 1);
+        else
+            throw new IllegalStateException(scope == DANGLING_NAME ? "Expected a value for the name" : "Not in an object");
+        stack[stackSize - 1] = DANGLING_NAME;
+        options.writeString(name, out);
+        options.writeNameSeparator(out);
+        return this;
+    }
+
+    /** Writes a string or null. */
+    public JsonWriter value(CharSequence value) throws IOException {
+        if (value == null)
+            return nullValue();
+        beforeValue();
+        options.writeString(value, out);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the shortest decimal, that rounds to the double.
+     *
+     * @throws IllegalArgumentException if the double is infinite or NaN.
+     */
+    public JsonWriter value(double value) throws IOException {
+        if (!Double.isFinite(value))
+            throw new IllegalArgumentException("Json does not allow " + value);
+        beforeValue();
+        out.write(JsonDecimal.toPlainString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /** Writes a number or null. */
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null)
+            return nullValue();
+        beforeValue();
+        out.write(switch (value) {
+            case BigDecimal decimal -> decimal.toPlainString();
+            case BigInteger integer -> integer.toString();
+            default -> JsonNumber.from(value).toString();
+        });
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /** Writes a whole tree as the next value. */
+    public JsonWriter value(JsonElement<?> value) throws IOException {
+        beforeValue();
+        JsonSerializer.write(value, options, out, stackSize - 1);
+        return this;
+    }
+
+    /** Writes the text of a number, that was already validated, as it is. */
+    JsonWriter numberValue(CharSequence number) throws IOException {
+        beforeValue();
+        out.append(number);
+        return this;
+    }
+
+    // ==== HELPERS ========================================================== //
+
+    /** Writes the separator before a value and checks, that a value is allowed here. */
+    private void beforeValue() throws IOException {
+        switch (stack[stackSize - 1]) {
+            case EMPTY_DOCUMENT -> stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+            case EMPTY_ARRAY -> {
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                options.writeOpened(out, stackSize - 1);
+            }
+            case NONEMPTY_ARRAY -> options.writeSeparator(out, stackSize - 1);
+            case DANGLING_NAME -> stack[stackSize - 1] = NONEMPTY_OBJECT;
+            case NONEMPTY_DOCUMENT -> throw new IllegalStateException("Json has only one top-level value");
+            default -> throw new IllegalStateException("Expected a name");
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length)
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = scope;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying sink.
+     *
+     * @throws IllegalStateException if the document is incomplete.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (stackSize > 1 || stack[0] != NONEMPTY_DOCUMENT)
+            throw new IllegalStateException("Incomplete document");
+    }
+
+}
\ No newline at end of file
@@ -10,4 +10,5 @@ module framework.json {
     exports de.trinext.framework.json;
     requires com.google.gson;
     requires java.net.http;
+    requires static jdk.incubator.vector;
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonBodyPublisherTest {
+
+    private static class Collector implements Subscriber<ByteBuffer> {
+
+        final List<ByteBuffer> chunks = new ArrayList<>();
+
+        Subscription subscription;
+
+        Throwable error;
+
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        byte[] bytes() {
+            var res = new ByteArrayOutputStream();
+            for (var chunk : chunks)
+                res.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            return res.toByteArray();
+        }
+
+    }
+
+    private static JsonList bigTree() {
+        var res = new JsonList();
+        for (var i = 0; i < 10_000; i++)
+            res.add(new JsonMap().add("id", i).add("name", "näme-" + i + "-😀"));
+        return res;
+    }
+
+    @Test
+    void test_publish_on_demand() {
+        var tree = bigTree();
+        var collector = new Collector();
+        Json.bodyPublisher(tree).subscribe(collector);
+        assertTrue(collector.chunks.isEmpty());
+        collector.subscription.request(1);
+        assertEquals(1, collector.chunks.size());
+        assertTrue(collector.chunks.getFirst().remaining() >= JsonBodyPublisher.CHUNK_SIZE);
+        while (!collector.completed) {
+            var before = collector.chunks.size();
+            collector.subscription.request(1);
+            assertEquals(before + 1, collector.chunks.size());
+        }
+        assertNull(collector.error);
+        assertArrayEquals(tree.toUtf8Bytes(), collector.bytes());
+    }
+
+    @Test
+    void test_publish_all_and_again() {
+        var tree = bigTree();
+        var publisher = Json.bodyPublisher(tree);
+        for (var i = 0; i < 2; i++) {
+            var collector = new Collector();
+            publisher.subscribe(collector);
+            collector.subscription.request(Long.MAX_VALUE);
+            collector.subscription.request(Long.MAX_VALUE);
+            assertTrue(collector.completed);
+            assertArrayEquals(tree.toUtf8Bytes(), collector.bytes());
+        }
+    }
+
+    @Test
+    void test_content_length() {
+        var tree = bigTree();
+        var publisher = Json.bodyPublisher(tree);
+        assertEquals(tree.toString().getBytes(UTF_8).length, publisher.contentLength());
+        assertEquals("\"äa€\"".getBytes(UTF_8).length, Json.bodyPublisher(JsonString.from("äa€")).contentLength());
+    }
+
+    @Test
+    void test_cancel_and_invalid_request() {
+        var collector = new Collector();
+        Json.bodyPublisher(bigTree()).subscribe(collector);
+        collector.subscription.request(1);
+        collector.subscription.cancel();
+        collector.subscription.request(1);
+        assertEquals(1, collector.chunks.size());
+        assertFalse(collector.completed);
+
+        var invalid = new Collector();
+        Json.bodyPublisher(bigTree()).subscribe(invalid);
+        invalid.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+        assertTrue(invalid.chunks.isEmpty());
+    }
+
+    @Test
+    void test_invalid_request_while_draining() {
+        var signals = new ArrayList<String>();
+        var reentrant = new Collector() {
+            @Override
+            public void onNext(ByteBuffer item) {
+                signals.add("next");
+                subscription.request(-1);
+                signals.add("next returned");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add("error");
+                super.onError(throwable);
+            }
+        };
+        Json.bodyPublisher(bigTree()).subscribe(reentrant);
+        reentrant.subscription.request(5);
+        // The error is delivered by the draining call after onNext returned, instead of within it
+        assertEquals(List.of("next", "next returned", "error"), signals);
+        assertInstanceOf(IllegalArgumentException.class, reentrant.error);
+        assertFalse(reentrant.completed);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.util.RandomHelper.runForRandomStrings;
+import static test.util.TestConstants.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonBytesParserTest {
+
+    private static final String JSON = "{\"field-1\":[1,-2.5,true,null],\"fäld-2\":\"ä\\n€\\ud83d\\ude00\",\"field-3\":{}}";
+
+    @Test
+    void test_tree_from_bytes() {
+        assertEquals(Json.treeFromString(JSON), Json.treeFromBytes(JSON.getBytes(UTF_8)));
+    }
+
+    @Test
+    void test_tree_from_bytes_range() {
+        var json = ("xx" + JSON + "yy").getBytes(UTF_8);
+        assertEquals(Json.treeFromString(JSON), Json.treeFromBytes(json, 2, json.length - 4));
+    }
+
+    @Test
+    void test_tree_from_buffer() {
+        var bytes = JSON.getBytes(UTF_8);
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertEquals(Json.treeFromString(JSON), Json.treeFromBuffer(direct));
+        assertEquals(0, direct.position());
+        assertEquals(Json.treeFromString(JSON), Json.treeFromBuffer(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    void test_tree_from_path() throws IOException {
+        var file = Files.createTempFile(JsonBytesParserTest.class.getSimpleName(), ".json");
+        try {
+            Files.writeString(file, "\uFEFF" + JSON, UTF_8);
+            assertEquals(Json.treeFromString(JSON), Json.treeFromPath(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void test_random_strings() {
+        runForRandomStrings(WORD_LENGTH, WORDS_PER_TEST, randStr -> {
+            var jStr = JsonString.from(randStr);
+            assertEquals(jStr, Json.treeFromBytes(jStr.toString().getBytes(UTF_8)));
+        });
+    }
+
+    @Test
+    void test_special_character_at_every_position() {
+        // Covers the positions inside and behind whole vectors of the scanner
+        for (var len = 0; len < 160; len++)
+            for (var special : new String[]{"\\n", "\\\"", "ä", "€"}) {
+                var str = "a".repeat(len) + special + "b".repeat(len % 7);
+                var json = "[\"" + str + "\",\"" + str + "\"]";
+                assertEquals(Json.treeFromString(json), Json.treeFromBytes(json.getBytes(UTF_8)));
+                assertEquals(Json.treeFromString(json), Json.lazyTreeFromBytes(json.getBytes(UTF_8)));
+            }
+    }
+
+    @Test
+    void test_scanner() {
+        var bytes = "a".repeat(100).getBytes(UTF_8);
+        assertEquals(100, JsonByteScanner.indexOfSpecial(bytes, 0, 100));
+        for (var i = 0; i < bytes.length; i++)
+            for (var special : new byte[]{'"', '\\', 0, '\n', 0x1F}) {
+                var copy = bytes.clone();
+                copy[i] = special;
+                assertEquals(i, JsonByteScanner.indexOfSpecial(copy, 0, copy.length));
+                assertEquals(i, JsonByteScanner.indexOfSpecial(copy, 0, i));
+                assertEquals(copy.length, JsonByteScanner.indexOfSpecial(copy, i + 1, copy.length));
+            }
+        // Neither non-ascii nor DEL are special
+        bytes[3] = (byte) 0xC3;
+        bytes[4] = 0x7F;
+        assertEquals(100, JsonByteScanner.indexOfSpecial(bytes, 0, 100));
+    }
+
+    @Test
+    void test_unescaped_control_character() {
+        var json = "[\"" + "a".repeat(40) + "\t\"]";
+        assertThrows(JsonParseException.class, () -> Json.treeFromBytes(json.getBytes(UTF_8)));
+        assertThrows(JsonParseException.class, () -> Json.lazyTreeFromBytes(json.getBytes(UTF_8)));
+    }
+
+    @Test
+    void test_invalid() {
+        assertThrows(JsonParseException.class, () -> Json.treeFromBytes("[1,".getBytes(UTF_8)));
+        assertThrows(JsonParseException.class, () -> Json.treeFromBytes("[1] x".getBytes(UTF_8)));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonCanonicalTest {
+
+    private static String canonical(JsonElement<?> tree) throws IOException {
+        var sb = new StringBuilder();
+        tree.writeCanonical(sb);
+        return sb.toString();
+    }
+
+    @Test
+    void test_rfc_example() throws IOException {
+        var tree = Json.treeFromString("""
+                {
+                  "numbers": [333333333.33333329, 1E30, 4.50, 2e-3, 0.000000000000000000000000001],
+                  "string": "\\u20ac$\\u000F\\u000aA'\\u0042\\u0022\\u005c\\\\\\"\\/",
+                  "literals": [null, true, false]
+                }""");
+        var expected = "{\"literals\":[null,true,false],\"numbers\":[333333333.3333333,1e+30,4.5,0.002,1e-27],"
+                       + "\"string\":\"€$\\u000f\\nA'B\\\"\\\\\\\\\\\"/\"}";
+        assertEquals(expected, canonical(tree));
+        var bytes = new ByteArrayOutputStream();
+        tree.writeCanonical(bytes);
+        assertArrayEquals(expected.getBytes(UTF_8), bytes.toByteArray());
+    }
+
+    @Test
+    void test_numbers() {
+        long[] bits = {
+                0x0000000000000000L, 0x8000000000000000L, 0x0000000000000001L, 0x8000000000000001L,
+                0x7fefffffffffffffL, 0x4340000000000000L, 0xc340000000000000L, 0x4430000000000000L,
+                0x44b52d02c7e14af5L, 0x44b52d02c7e14af6L, 0x44b52d02c7e14af7L, 0x444b1ae4d6e2ef4eL,
+                0x444b1ae4d6e2ef50L, 0x3eb0c6f7a0b5ed8cL, 0x3eb0c6f7a0b5ed8dL, 0x3eb0c6f7a0b5ed8eL,
+                0x3e7ad7f29abcaf47L, 0x3e7ad7f29abcaf48L, 0x3e7ad7f29abcaf49L,
+        };
+        String[] expected = {
+                "0", "0", "5e-324", "-5e-324",
+                "1.7976931348623157e+308", "9007199254740992", "-9007199254740992", "295147905179352830000",
+                "9.999999999999997e+22", "1e+23", "1.0000000000000001e+23", "999999999999999700000",
+                "1e+21", "9.999999999999997e-7", "0.000001", "0.0000010000000000000002",
+                "9.999999999999998e-8", "1e-7", "1.0000000000000001e-7",
+        };
+        for (var i = 0; i < bits.length; i++)
+            assertEquals(expected[i], JsonDecimal.toCanonicalString(Double.longBitsToDouble(bits[i])));
+        assertEquals("-9007199254740992", JsonInteger.from(-9007199254740992L).toCanonicalString());
+        assertEquals("9007199254740992", JsonInteger.from(9007199254740993L).toCanonicalString());
+        assertEquals("9223372036854776000", JsonInteger.from(Long.MAX_VALUE).toCanonicalString());
+        assertEquals("1e+30", JsonInteger.from(BigInteger.TEN.pow(30)).toCanonicalString());
+        assertEquals("1.5", JsonDecimal.from(new BigDecimal("1.50")).toCanonicalString());
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonDecimal.from(new BigDecimal("1e400")).toCanonicalString());
+    }
+
+    @Test
+    void test_content_hash() throws NoSuchAlgorithmException, IOException {
+        var digest = MessageDigest.getInstance("SHA-256");
+        var tree = new JsonList();
+        for (var i = 0; i < 10_000; i++)
+            tree.add(new JsonMap().add("z", i).add("a", "näme-" + i + "-😀"));
+        var expected = MessageDigest.getInstance("SHA-256").digest(canonical(tree).getBytes(UTF_8));
+        assertArrayEquals(expected, tree.contentHash(digest));
+        assertArrayEquals(expected, tree.contentHash(digest));
+
+        var reordered = Json.treeFromString("{\"b\":1.0, \"a\":[2]}");
+        assertArrayEquals(Json.treeFromString("{\"a\":[2], \"b\":1}").contentHash(digest), reordered.contentHash(digest));
+        assertThrows(IllegalArgumentException.class, () -> JsonString.from("\ud800").contentHash(digest));
+    }
+
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package de.trinext.framework.json;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,6 +50,81 @@ class JsonDecimalTest {
         });
     }
 
+    @Test
+    void test_parsed_shortest_doubles() {
+        for (var text : new String[]{"0.1", "-12.5", "100.0", "0.0", "-0.0", "0.001", "9999999.5", "1.50", "0.0001", "1e5", "123456789.5", "0.30000000000000004"}) {
+            var parsed = Json.treeFromString(text);
+            var exact = new BigDecimal(text);
+            assertEquals(JsonDecimal.from(exact), parsed, text);
+            assertEquals(exact.hashCode(), parsed.hashCode(), text);
+            assertEquals(exact.toPlainString(), parsed.toString(), text);
+            assertEquals(exact, parsed.tryGetAsBigDec().orElseThrow(), text);
+            assertEquals(Double.parseDouble(text), parsed.tryGetAsDouble().orElseThrow(), text);
+        }
+        assertTrue(((JsonDecimal) Json.treeFromString("0.1")).isDouble());
+        assertFalse(((JsonDecimal) Json.treeFromString("1.50")).isDouble());
+        assertEquals(new BigDecimal("0.1"), Json.treeFromString("0.1").tryGetAsNumber().orElseThrow());
+    }
+
+    @Test
+    void test_out_of_range_like_big_decimal() {
+        for (var text : new String[]{"1e10", "-1e10", "3.9e9", "1e19", "-1.5e19", "1e300", "0.5", "-2147483648.5"}) {
+            var big = new BigDecimal(text);
+            for (var dec : new JsonElement<?>[]{Json.treeFromString(text), JsonDecimal.from(big.doubleValue())}) {
+                assertEquals(big.intValue(), dec.tryGetAsInt().orElseThrow(), text);
+                assertEquals(big.longValue(), dec.tryGetAsLong().orElseThrow(), text);
+            }
+        }
+        assertEquals(1410065408, Json.treeFromString("1e10").tryGetAsInt().orElseThrow());
+    }
+
+    @Test
+    void test_shortest_double() {
+        assertEquals("0.1", JsonDecimal.from(0.1).toString());
+        assertEquals("0.1", JsonDecimal.from(0.1f).toString());
+        assertEquals(JsonDecimal.from(new BigDecimal("0.1")), JsonDecimal.from(0.1));
+        assertThrows(NumberFormatException.class, () -> JsonDecimal.from(Double.NaN));
+        assertThrows(NumberFormatException.class, () -> JsonDecimal.from(Float.POSITIVE_INFINITY));
+        var doubles = new double[]{0.0, -0.0, 1e7, 1e10, -1.5e-7, 1.23456789e7, 2.5e300, Double.MIN_VALUE, Double.MAX_VALUE, 1e-3, 9.999e-4};
+        for (var d : doubles)
+            assertShortest(d);
+        runForRandomLongs(NRS_PER_TEST, randLong -> {
+            var d = Double.longBitsToDouble(randLong);
+            if (Double.isFinite(d))
+                assertShortest(d);
+        });
+    }
+
+    private static void assertShortest(double d) {
+        var jD = JsonDecimal.from(d);
+        assertEquals(BigDecimal.valueOf(d).toPlainString(), jD.toString());
+        assertEquals(JsonDecimal.from(BigDecimal.valueOf(d)), jD);
+        assertEquals(d, Double.parseDouble(jD.toString()), 0.0);
+    }
+
+    @Test
+    void test_parse_fast_doubles() {
+        var literals = new String[]{"0.1", "-12.5e3", "1E22", "1e-22", "123456789012345.6", "0.30000000000000004", "1e23", "4.9e-324", "1e400", "0e999", "-0.0"};
+        for (var literal : literals)
+            assertEquals(Double.parseDouble(literal), parseDouble(literal), literal);
+        runForRandomLongs(NRS_PER_TEST, randLong -> {
+            var d = Double.longBitsToDouble(randLong);
+            if (Double.isFinite(d))
+                assertEquals(d, parseDouble(Double.toString(d)));
+        });
+    }
+
+    private static double parseDouble(String json) {
+        var res = new double[1];
+        Json.parse(json, new JsonHandler() {
+            @Override
+            public void value(double value) {
+                res[0] = value;
+            }
+        });
+        return res[0];
+    }
+
     @Test
     void test_json_type_name() {
         assertEquals(JsonDecimal.class.getSimpleName(), JsonDecimal.from(0.1).typeName());
@@ -0,0 +1,111 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonHandlerTest {
+
+    private static final String JSON = "{\"a\":[1,2.5,\"x\",true,null],\"b\":{\"c\":12345678901234567890},\"d\":[]}";
+
+    private static final List<String> EVENTS = List.of(
+            "{", "key a", "[", "long 1", "double 2.5", "string x", "bool true", "null", "]",
+            "key b", "{", "key c", "double 1.2345678901234567E19", "}", "key d", "[", "]", "}"
+    );
+
+    /** Records all events as strings. */
+    private static final class RecordingHandler implements JsonHandler {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startObject() { events.add("{"); }
+
+        @Override
+        public void endObject() { events.add("}"); }
+
+        @Override
+        public void startArray() { events.add("["); }
+
+        @Override
+        public void endArray() { events.add("]"); }
+
+        @Override
+        public void key(CharSequence key) { events.add("key " + key); }
+
+        @Override
+        public void value(CharSequence value) { events.add("string " + value); }
+
+        @Override
+        public void value(long value) { events.add("long " + value); }
+
+        @Override
+        public void value(double value) { events.add("double " + value); }
+
+        @Override
+        public void value(boolean value) { events.add("bool " + value); }
+
+        @Override
+        public void nullValue() { events.add("null"); }
+
+    }
+
+    @Test
+    void test_parse_string() {
+        var handler = new RecordingHandler();
+        Json.parse(JSON, handler);
+        assertEquals(EVENTS, handler.events);
+    }
+
+    @Test
+    void test_parse_bytes() {
+        var handler = new RecordingHandler();
+        Json.parse(JSON.getBytes(UTF_8), handler);
+        assertEquals(EVENTS, handler.events);
+    }
+
+    @Test
+    void test_parse_streams() throws IOException {
+        var handler = new RecordingHandler();
+        Json.parse(new StringReader(JSON), handler);
+        assertEquals(EVENTS, handler.events);
+        handler = new RecordingHandler();
+        Json.parse(new ByteArrayInputStream(JSON.getBytes(UTF_8)), handler);
+        assertEquals(EVENTS, handler.events);
+    }
+
+    @Test
+    void test_exact_decimals() {
+        var sum = new BigDecimal[]{BigDecimal.ZERO};
+        Json.parse("[0.1,0.2,0.30000000000000000001]", new JsonHandler() {
+            @Override
+            public void value(BigDecimal value) {
+                sum[0] = sum[0].add(value);
+            }
+
+            @Override
+            public boolean exactDecimals() {
+                return true;
+            }
+        });
+        assertEquals(new BigDecimal("0.60000000000000000001"), sum[0]);
+    }
+
+    @Test
+    void test_invalid() {
+        assertThrows(JsonParseException.class, () -> Json.parse("[1,2", new JsonHandler() { }));
+        assertThrows(JsonParseException.class, () -> Json.parse(new StringReader("[1] 2"), new JsonHandler() { }));
+    }
+
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package de.trinext.framework.json;
 
+import java.math.BigInteger;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +31,22 @@ class JsonIntegerTest {
         });
     }
 
+    @Test
+    void test_long_and_big_representation() {
+        for (var value : new long[]{0, 1, -1, 127, Integer.MIN_VALUE, 1L << 32, -(1L << 32) - 5, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            var big = BigInteger.valueOf(value);
+            assertEquals(JsonInteger.from(big), JsonInteger.from(value));
+            assertEquals(big.hashCode(), JsonInteger.from(value).hashCode());
+            assertTrue(JsonInteger.from(big).fitsLong());
+        }
+        var huge = BigInteger.ONE.shiftLeft(64).negate();
+        assertFalse(JsonInteger.from(huge).fitsLong());
+        assertEquals(huge, JsonInteger.from(huge).tryGetAsBigInt().orElseThrow());
+        assertEquals(huge.hashCode(), Json.treeFromString(huge.toString()).hashCode());
+        assertEquals(BigInteger.ONE, JsonInteger.from(1).tryGetAsNumber().orElseThrow());
+        assertEquals(BigInteger.ONE, Json.treeFromString("1").tryGetAsNumber().orElseThrow());
+    }
+
     @Test
     void test_to_string() {
         runForRandomBigInts(NRS_PER_TEST, randBigInt -> assertEquals(
@@ -0,0 +1,82 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonLinesSpliteratorTest {
+
+    private static InputStream stream(String str) {
+        return new ByteArrayInputStream(str.getBytes(UTF_8));
+    }
+
+    @Test
+    void test_lines() {
+        var lines = Json.linesFrom(stream("﻿{\"a\":1}\r\n\n  \n[true,\"ä\"]\n\"last\"")).toList();
+        assertEquals(List.of(
+                Json.treeFromString("{\"a\":1}"),
+                Json.treeFromString("[true,\"ä\"]"),
+                JsonString.from("last")
+        ), lines);
+    }
+
+    @Test
+    void test_empty() {
+        assertEquals(0, Json.linesFrom(stream("")).count());
+        assertEquals(0, Json.linesFrom(stream("\n\n")).count());
+    }
+
+    @Test
+    void test_lines_longer_than_buffer() {
+        var longStr = "x".repeat(200_000);
+        var lines = Json.linesFrom(stream("\"" + longStr + "\"\n1\n\"" + longStr + "\"\n")).toList();
+        assertEquals(List.of(JsonString.from(longStr), JsonInteger.from(1), JsonString.from(longStr)), lines);
+    }
+
+    @Test
+    void test_parallel_keeps_order() {
+        var json = new StringBuilder();
+        IntStream.range(0, 100_000).forEach(i -> json.append("{\"i\":").append(i).append("}\n"));
+        var lines = Json.linesFrom(stream(json.toString()))
+                .parallel()
+                .map(jElem -> ((JsonMap) jElem).tryGet("i").orElseThrow().tryGetAsInt().orElseThrow())
+                .toList();
+        assertEquals(IntStream.range(0, 100_000).boxed().toList(), lines);
+    }
+
+    @Test
+    void test_typed_lines() {
+        record Point(int x, int y) { }
+        var points = Json.linesFrom(stream("{\"x\":1,\"y\":2}\n{\"x\":3,\"y\":4}\n"), Point.class).toList();
+        assertEquals(List.of(new Point(1, 2), new Point(3, 4)), points);
+        var invalid = Json.linesFrom(stream("{\"x\":1,\"y\":2}\n{\"x\":3,}\n"), Point.class);
+        var e = assertThrows(JsonParseException.class, invalid::toList);
+        assertTrue(e.getMessage().startsWith("Invalid json in line 2"));
+
+        var mismatch = Json.linesFrom(stream("{\"x\":1,\"y\":2}\n\n{\"x\":[3]}\n"), Point.class);
+        e = assertThrows(JsonParseException.class, mismatch::toList);
+        assertTrue(e.getMessage().startsWith("Invalid json in line 3"), e.getMessage());
+
+        var nullLine = Json.linesFrom(stream("{\"x\":1,\"y\":2}\nnull\n"), Point.class);
+        e = assertThrows(JsonParseException.class, nullLine::toList);
+        assertTrue(e.getMessage().startsWith("Invalid json in line 2"), e.getMessage());
+        assertTrue(e.getMessage().endsWith("binds to null"), e.getMessage());
+    }
+
+    @Test
+    void test_invalid_line() {
+        var lines = Json.linesFrom(stream("1\n2\n[3,\n4"));
+        var e = assertThrows(JsonParseException.class, lines::toList);
+        assertTrue(e.getMessage().startsWith("Invalid json in line 3"));
+    }
+
+}
\ No newline at end of file
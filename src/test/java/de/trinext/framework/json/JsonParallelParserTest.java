@@ -0,0 +1,45 @@
+package de.trinext.framework.json;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonParallelParserTest {
+
+    /** An array, that is split into several chunks, with separators and brackets inside of strings. */
+    private static final String BIG_ARRAY = IntStream.range(0, 20_000)
+            .mapToObj(i -> "{\"i\":" + i + ",\"s\":\"a,]}[{\\\"ä" + i + "\",\"l\":[" + i + ",[],{}]}")
+            .collect(Collectors.joining(",\n", " [", "] "));
+
+    @Test
+    void test_big_array() {
+        var expected = Json.treeFromString(BIG_ARRAY);
+        assertEquals(expected, Json.parallelTreeFromString(BIG_ARRAY, 0));
+        assertEquals(expected, Json.parallelTreeFromBytes(BIG_ARRAY.getBytes(UTF_8), 0));
+        assertEquals(expected, Json.parallelTreeFromBytes(BIG_ARRAY.getBytes(UTF_8)));
+    }
+
+    @Test
+    void test_small_and_non_array() {
+        assertEquals(new JsonList(), Json.parallelTreeFromString("[ ]", 0));
+        assertEquals(new JsonList(1, 2), Json.parallelTreeFromString("[1,2]", 0));
+        assertEquals(Json.treeFromString("{\"a\":[1]}"), Json.parallelTreeFromString("{\"a\":[1]}", 0));
+        assertEquals(JsonString.from("a"), Json.parallelTreeFromString("\"a\"", 0));
+    }
+
+    @Test
+    void test_invalid() {
+        for (var invalid : new String[]{"[", "[1,]", "[,1]", "[1}", "[{]}", "[1 2]", "[1] x", "[\"a]", BIG_ARRAY + ",", BIG_ARRAY.replace(",[],", ",[},")}) {
+            assertThrows(JsonParseException.class, () -> Json.parallelTreeFromString(invalid, 0), invalid);
+            assertThrows(JsonParseException.class, () -> Json.parallelTreeFromBytes(invalid.getBytes(UTF_8), 0), invalid);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package de.trinext.framework.json;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonPathSelectionTest {
+
+    private static final String JSON = """
+            {
+                "data": {
+                    "items": [
+                        {"id": 1, "name": "a", "tags": ["x", "y"]},
+                        {"id": 2, "name": "b\\u00e4", "tags": []},
+                        {"name": "c"},
+                        5
+                    ],
+                    "total": 3
+                },
+                "meta": {"cursor": "next", "took": 1.5},
+                "k\\u00e4y": {"a": true},
+                "skipped": [{"deep": [[[{}]]]}, "\\n\\"", -1e5, null]
+            }""";
+
+    private static void assertSelects(String expected, String... keepPaths) {
+        assertEquals(Json.treeFromString(expected), Json.treeFromStringKeeping(JSON, keepPaths));
+        assertEquals(Json.treeFromString(expected), Json.treeFromBytesKeeping(JSON.getBytes(UTF_8), keepPaths));
+        assertEquals(Json.treeFromString(expected), Json.treeFromBufferKeeping(ByteBuffer.wrap(JSON.getBytes(UTF_8)), keepPaths));
+    }
+
+    @Test
+    void test_select_paths() {
+        assertSelects(
+                "{\"data\":{\"items\":[{\"id\":1},{\"id\":2},{}]},\"meta\":{\"cursor\":\"next\"}}",
+                "data.items.*.id", "meta.cursor"
+        );
+    }
+
+    @Test
+    void test_select_whole_subtree() {
+        assertSelects("{\"meta\":{\"cursor\":\"next\",\"took\":1.5}}", "meta");
+        assertSelects(JSON, "data", "meta", "käy", "skipped");
+    }
+
+    @Test
+    void test_select_escaped_keys() {
+        assertSelects("{\"käy\":{\"a\":true}}", "käy.a");
+    }
+
+    @Test
+    void test_select_strict() {
+        assertEquals(
+                Json.treeFromString("[{\"name\":1},{\"name\":2}]"),
+                Json.treeFromStringKeeping("[{\"name\":1},{\"x\":3,\"name\":2}]", "*!name")
+        );
+        assertSelects("{\"data\":{\"items\":[null,{\"id\":2}]}}", "data!items!1!id");
+        assertSelects("{\"meta\":{\"cursor\":\"next\"}}", "!meta.cursor");
+        var missing = assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping(JSON, "data.items.*!id"));
+        assertTrue(missing.getMessage().contains("Could not find \"!id\""), missing.getMessage());
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping(JSON, "data.items.*!name"));
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping(JSON, "data.items!4"));
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping(JSON, "!missing"));
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping("[]", "!0"));
+    }
+
+    @Test
+    void test_select_indexes() {
+        assertSelects("{\"data\":{\"items\":[null,{\"tags\":[]}]}}", "data.items.1.tags");
+        assertSelects("{\"data\":{\"items\":[{\"id\":1,\"name\":\"a\",\"tags\":[\"x\",\"y\"]},{\"id\":2},{}]}}", "data.items.*.id", "data.items.0");
+    }
+
+    @Test
+    void test_select_nothing() {
+        assertSelects("{}", "missing");
+        assertSelects("{\"data\":{}}", "data.total.deeper");
+        assertEquals(JsonInteger.from(1), Json.treeFromStringKeeping("1", "a.b"));
+    }
+
+    @Test
+    void test_invalid() {
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping("{\"a\":1,\"b\":[1,}", "a"));
+        assertThrows(JsonParseException.class, () -> Json.treeFromStringKeeping("{\"a\":1} x", "a"));
+        assertThrows(JsonParseException.class, () -> Json.treeFromBytesKeeping("{\"a\":\"\\x\"}".getBytes(UTF_8), "b"));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package de.trinext.framework.json;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow.Subscription;
+
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonPushParserTest {
+
+    private static final String JSON = " {\"field-1\":[1,-2.5e3,true,null,false,12345678901234567890],\"fäld-2\":\"ä\\n€\\ud83d\\ude00\\\"\",\"field-3\":{},\"\":[[]]} ";
+
+    private static JsonElement<?> parseInChunks(byte[] bytes, int chunkSize) {
+        var builder = new JsonTreeBuilder();
+        var parser = new JsonPushParser(builder);
+        for (var i = 0; i < bytes.length; i += chunkSize)
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        parser.finish();
+        return builder.result();
+    }
+
+    @Test
+    void test_split_at_every_byte() {
+        var expected = Json.treeFromString(JSON);
+        var bytes = JSON.getBytes(UTF_8);
+        for (var chunkSize = 1; chunkSize <= bytes.length; chunkSize++)
+            assertEquals(expected, parseInChunks(bytes, chunkSize));
+    }
+
+    @Test
+    void test_split_in_two() {
+        var expected = Json.treeFromString(JSON);
+        var bytes = JSON.getBytes(UTF_8);
+        for (var split = 0; split <= bytes.length; split++) {
+            var builder = new JsonTreeBuilder();
+            var parser = new JsonPushParser(builder);
+            var direct = ByteBuffer.allocateDirect(bytes.length - split).put(bytes, split, bytes.length - split).flip();
+            parser.feed(ByteBuffer.wrap(bytes, 0, split));
+            parser.feed(direct);
+            parser.finish();
+            assertEquals(expected, builder.result());
+        }
+    }
+
+    @Test
+    void test_primitives() {
+        assertEquals(JsonInteger.from(123), parseInChunks("123".getBytes(UTF_8), 1));
+        assertEquals(JsonBool.TRUE, parseInChunks(" true ".getBytes(UTF_8), 2));
+        assertEquals(JsonString.from("a"), parseInChunks("\"a\"".getBytes(UTF_8), 1));
+    }
+
+    @Test
+    void test_invalid() {
+        for (var invalid : new String[]{"", " ", "[", "[1,]", "{\"a\" 1}", "{\"a\":}", "[1}", "[1] 2", "tru", "truex", "01", "\"a", "{1:2}", "[\"\\x\"]"})
+            assertThrows(JsonParseException.class, () -> parseInChunks(invalid.getBytes(UTF_8), 1), invalid);
+    }
+
+    @Test
+    void test_invalid_token_position() {
+        for (var invalid : new String[]{"[1, \"ab\\xc\"]", "{\"a\": 1, \"b\\x\": 2}", "  -1.e5"}) {
+            var expected = assertThrows(JsonParseException.class, () -> Json.treeFromString(invalid));
+            for (var chunkSize : new int[]{1, 3, invalid.length()}) {
+                var e = assertThrows(JsonParseException.class, () -> parseInChunks(invalid.getBytes(UTF_8), chunkSize));
+                assertEquals(expected.getMessage(), e.getMessage(), invalid);
+            }
+        }
+    }
+
+    @Test
+    void test_body_subscriber() throws ExecutionException, InterruptedException {
+        var builder = new JsonTreeBuilder();
+        var subscriber = new JsonBodySubscriber<>(builder, builder::result);
+        var requested = new long[1];
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requested[0] += n;
+            }
+
+            @Override
+            public void cancel() {
+                fail("Should not be cancelled");
+            }
+        });
+        var bytes = JSON.getBytes(UTF_8);
+        var half = bytes.length / 2;
+        subscriber.onNext(List.of(ByteBuffer.wrap(bytes, 0, 3), ByteBuffer.wrap(bytes, 3, half - 3)));
+        subscriber.onNext(List.of(ByteBuffer.wrap(bytes, half, bytes.length - half)));
+        assertFalse(subscriber.getBody().toCompletableFuture().isDone());
+        subscriber.onComplete();
+        assertEquals(Json.treeFromString(JSON), subscriber.getBody().toCompletableFuture().get());
+        assertEquals(3, requested[0]);
+    }
+
+    @Test
+    void test_body_subscriber_invalid() {
+        var builder = new JsonTreeBuilder();
+        var subscriber = new JsonBodySubscriber<>(builder, builder::result);
+        var cancelled = new boolean[1];
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) { }
+
+            @Override
+            public void cancel() {
+                cancelled[0] = true;
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap("[1,}".getBytes(UTF_8))));
+        assertTrue(cancelled[0]);
+        var e = assertThrows(ExecutionException.class, () -> subscriber.getBody().toCompletableFuture().get());
+        assertInstanceOf(JsonParseException.class, e.getCause());
+    }
+
+    private record Point(int x, double y, String label, List<Long> ids) { }
+
+    /** Binds the json through the instance body handler, which receives it in two chunks on demand. */
+    private static CompletableFuture<Point> bind(byte[] json) {
+        var subscriber = Json.<Point>instanceBodyHandler(UTF_8, Point.class).apply(null);
+        var split = Math.min(10, json.length);
+        var chunks = new ArrayDeque<>(List.of(ByteBuffer.wrap(json, 0, split), ByteBuffer.wrap(json, split, json.length - split)));
+        subscriber.onSubscribe(new Subscription() {
+            private boolean completed;
+
+            @Override
+            public synchronized void request(long n) {
+                for (; n > 0 && !completed; n--) {
+                    var chunk = chunks.poll();
+                    if (chunk == null) {
+                        completed = true;
+                        subscriber.onComplete();
+                    } else
+                        subscriber.onNext(List.of(chunk));
+                }
+            }
+
+            @Override
+            public void cancel() { }
+        });
+        return subscriber.getBody().toCompletableFuture();
+    }
+
+    @Test
+    void test_instance_body_handler() throws ExecutionException, InterruptedException {
+        var json = "{\"x\":1,\"y\":2.5,\"label\":\"ä\\n\",\"ids\":[12345678901,2]}".getBytes(UTF_8);
+        for (var i = 0; i < 3; i++)
+            assertEquals(new Point(1, 2.5, "ä\n", List.of(12345678901L, 2L)), bind(json).get());
+    }
+
+    @Test
+    void test_instance_body_handler_empty_and_mismatch() throws ExecutionException, InterruptedException {
+        // Like Gson.fromJson, an empty body, e.g. of a 204, binds to null
+        assertNull(bind(new byte[0]).get());
+        var mismatch = assertThrows(ExecutionException.class, () -> bind("{\"x\":1,\"ids\":{}}".getBytes(UTF_8)).get());
+        assertInstanceOf(JsonSyntaxException.class, mismatch.getCause());
+        var trailing = assertThrows(ExecutionException.class, () -> bind("{\"x\":1} {}".getBytes(UTF_8)).get());
+        assertInstanceOf(JsonSyntaxException.class, trailing.getCause());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.util.TestConstants.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonReaderTest {
+
+    private static final String JSON = "{\"field-1\": [1, -2.5e1, true, null], \"field-2\": \"a\\u00e4\\n\", \"field-3\": {\"field-4\": {}}}";
+
+    @Test
+    void test_pull_values() throws IOException {
+        try (var reader = new JsonReader(new StringReader(JSON))) {
+            reader.beginObject();
+            assertEquals(field(1), reader.nextName());
+            reader.beginArray();
+            assertEquals(1, reader.nextLong());
+            assertEquals(-25.0, reader.nextDouble());
+            assertTrue(reader.nextBoolean());
+            reader.nextNull();
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            assertEquals(field(2), reader.nextName());
+            assertEquals("aä\n", reader.nextString());
+            assertEquals(field(3), reader.nextName());
+            reader.skipValue();
+            reader.endObject();
+            assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    @Test
+    void test_next_token() throws IOException {
+        var expected = new JsonToken[]{
+                JsonToken.BEGIN_OBJECT,
+                JsonToken.NAME, JsonToken.BEGIN_ARRAY,
+                JsonToken.NUMBER, JsonToken.NUMBER, JsonToken.BOOLEAN, JsonToken.NULL,
+                JsonToken.END_ARRAY,
+                JsonToken.NAME, JsonToken.STRING,
+                JsonToken.NAME, JsonToken.BEGIN_OBJECT, JsonToken.NAME, JsonToken.BEGIN_OBJECT,
+                JsonToken.END_OBJECT, JsonToken.END_OBJECT,
+                JsonToken.END_OBJECT, JsonToken.END_DOCUMENT
+        };
+        try (var reader = new JsonReader(new ByteArrayInputStream(JSON.getBytes(UTF_8)))) {
+            for (var token : expected)
+                assertEquals(token, reader.nextToken());
+        }
+    }
+
+    @Test
+    void test_read_element() throws IOException {
+        try (var reader = new JsonReader(new StringReader(JSON))) {
+            assertEquals(Json.treeFromString(JSON), reader.readElement());
+        }
+        try (var reader = new JsonReader(new StringReader(JSON))) {
+            reader.beginObject();
+            reader.skipValue();
+            assertEquals(field(2), reader.nextName());
+            reader.skipValue();
+            assertEquals(field(3), reader.nextName());
+            assertEquals(Json.treeFromString("{\"field-4\": {}}"), reader.readElement());
+            reader.endObject();
+        }
+    }
+
+    @Test
+    void test_large_document() throws IOException {
+        var sb = new StringBuilder("[");
+        for (var i = 0; i < 10_000; i++)
+            sb.append(i == 0 ? "" : ",").append("{\"").append(field(i)).append("\":").append(i).append('}');
+        sb.append(']');
+        try (var reader = new JsonReader(new StringReader(sb.toString()))) {
+            reader.beginArray();
+            for (var i = 0; reader.hasNext(); i++)
+                assertEquals(i, reader.readElement().tryGetPathAsInt(field(i)).orElseThrow());
+            reader.endArray();
+        }
+    }
+
+    @Test
+    void test_invalid() {
+        for (var invalid : new String[]{"[1,]", "{\"a\" 1}", "[01]", "[1 2]", "{} {}", "[tru]", "\"abc"})
+            assertThrows(JsonParseException.class, () -> {
+                try (var reader = new JsonReader(new StringReader(invalid))) {
+                    reader.skipValue();
+                    reader.peek();
+                }
+            }, invalid);
+    }
+
+}
\ No newline at end of file
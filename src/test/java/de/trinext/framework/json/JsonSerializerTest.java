@@ -0,0 +1,218 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonSerializerTest {
+
+    private static final String JSON = "{\"a\":[1, -2.5, true, null, {}, []], \"ä\":\"€\\n\", \"c\":{\"d\":[[\"x\"]]}}";
+
+    @Test
+    void test_write_to_appendable() throws IOException {
+        var tree = Json.treeFromString(JSON);
+        var writer = new StringWriter();
+        tree.writeTo(writer);
+        assertEquals(JSON, writer.toString());
+        assertEquals(JSON, tree.toString());
+        assertEquals(tree, Json.treeFromString(writer.toString()));
+    }
+
+    @Test
+    void test_write_to_bytes() throws IOException {
+        var tree = Json.treeFromString(JSON);
+        var stream = new ByteArrayOutputStream();
+        tree.writeTo(stream);
+        assertEquals(JSON, stream.toString(UTF_8));
+        var channelStream = new ByteArrayOutputStream();
+        tree.writeTo(Channels.newChannel(channelStream));
+        assertEquals(JSON, channelStream.toString(UTF_8));
+    }
+
+    @Test
+    void test_write_big_tree_in_chunks() throws IOException {
+        var tree = new JsonList();
+        for (var i = 0; i < 10_000; i++)
+            tree.add("entry-ä-" + i);
+        var expected = tree.toString().getBytes(UTF_8);
+        var maxWrite = new int[1];
+        var stream = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                maxWrite[0] = Math.max(maxWrite[0], len);
+                super.write(b, off, len);
+            }
+        };
+        tree.writeTo(stream);
+        assertArrayEquals(expected, stream.toByteArray());
+        assertTrue(maxWrite[0] < expected.length / 4, "Written at once: " + maxWrite[0]);
+        var channelStream = new ByteArrayOutputStream();
+        tree.writeTo(Channels.newChannel(channelStream));
+        assertArrayEquals(expected, channelStream.toByteArray());
+    }
+
+    @Test
+    void test_write_primitives() throws IOException {
+        for (var json : new String[]{"1", "\"a\"", "null", "false", "[]", "{}"}) {
+            var sb = new StringBuilder();
+            Json.treeFromString(json).writeTo(sb);
+            assertEquals(json, sb.toString());
+        }
+    }
+
+    @Test
+    void test_write_deep_tree() throws IOException {
+        var depth = 100_000;
+        JsonElement<?> tree = new JsonList();
+        for (var i = 0; i < depth; i++) {
+            var outer = new JsonMap();
+            outer.value.put("k", new JsonList().add(tree));
+            tree = outer;
+        }
+        var sb = new StringBuilder();
+        tree.writeTo(sb);
+        assertEquals("{\"k\":[".repeat(depth) + "[]" + "]}".repeat(depth), sb.toString());
+    }
+
+    @Test
+    void test_to_utf8_bytes() {
+        var strings = new String[]{JSON, "\"\ud83d\ude00 ä €\"", "\"" + "ä".repeat(5000) + "\""};
+        for (var i = 0; i < 3; i++)
+            for (var json : strings) {
+                var tree = Json.treeFromString(json);
+                assertArrayEquals(tree.toString().getBytes(UTF_8), tree.toUtf8Bytes());
+            }
+        var unpaired = new JsonList().add("a\ud800").add("\udc00b");
+        assertArrayEquals(unpaired.toString().getBytes(UTF_8), unpaired.toUtf8Bytes());
+    }
+
+    @Test
+    void test_write_to_byte_buffer() {
+        var tree = Json.treeFromString(JSON);
+        var expected = JSON.getBytes(UTF_8);
+        var buffer = ByteBuffer.allocate(expected.length + 2).put((byte) '#');
+        tree.writeTo(buffer);
+        assertEquals(expected.length + 1, buffer.position());
+        assertEquals(JSON, UTF_8.decode(buffer.flip().position(1)).toString());
+        var small = ByteBuffer.allocateDirect(expected.length - 1);
+        assertThrows(BufferOverflowException.class, () -> tree.writeTo(small));
+        assertEquals(0, small.position());
+    }
+
+    @Test
+    void test_escape_keys() throws IOException {
+        var map = new JsonMap().add("a\"b\n", "c\\").add("\u0001", 1);
+        var sb = new StringBuilder();
+        map.writeTo(sb);
+        assertEquals("{\"a\\\"b\\n\":\"c\\\\\", \"\\u0001\":1}", sb.toString());
+        assertEquals(map, Json.treeFromString(sb.toString()));
+    }
+
+    @Test
+    void test_memoise_text() {
+        var branch = new JsonList();
+        for (var i = 0; i < 100; i++)
+            branch.add("value-" + i);
+        var changed = new JsonMap().add("n", 1);
+        var shared = new JsonList().add(true);
+        var root = new JsonMap().add("branch", branch).add("changed", new JsonList().add(changed)).add("shared", shared);
+        var other = new JsonList().add(shared);
+        var text = root.toString();
+        assertSame(text, root.toString());
+        assertEquals(other.toString(), "[[true]]");
+        // Only the root keeps its text, unless the text of a container inside is asked for
+        assertNull(branch.serialized);
+        var branchText = branch.toString();
+        assertSame(branchText, branch.serialized);
+
+        changed.add("m", 2);
+        assertEquals(Json.treeFromString(text.replace("{\"n\":1}", "{\"n\":1, \"m\":2}")), Json.treeFromString(root.toString()));
+        assertSame(branchText, branch.serialized);
+
+        shared.add(false);
+        assertEquals("[[true, false]]", other.toString());
+        assertTrue(root.toString().endsWith("\"shared\":[true, false]}"));
+
+        for (var it = shared.iterator(); it.hasNext(); )
+            if (it.next() == JsonBool.TRUE)
+                it.remove();
+        assertEquals("[[false]]", other.toString());
+        root.iterator().next().setValue(JsonNull.NULL);
+        assertTrue(root.toString().startsWith("{\"branch\":null, "));
+        root.removeKey("branch");
+        assertFalse(root.toString().contains("branch"));
+    }
+
+    @Test
+    void test_memoise_deep_tree() {
+        var depth = 100_000;
+        var inner = new JsonList();
+        JsonElement<?> tree = inner;
+        for (var i = 0; i < depth; i++)
+            tree = new JsonList().add(tree);
+        assertEquals("[".repeat(depth + 1) + "]".repeat(depth + 1), tree.toString());
+        inner.add(1);
+        assertEquals("[".repeat(depth + 1) + "1" + "]".repeat(depth + 1), tree.toString());
+    }
+
+    @Test
+    void test_detach_removed() {
+        var innermost = new JsonList().add(1);
+        var removed = new JsonMap().add("inner", new JsonList().add(innermost));
+        var root = new JsonMap().add("removed", removed).add("kept", new JsonList().add(2));
+        root.toString();
+        root.removeKey("removed");
+        var text = root.toString();
+        assertEquals("{\"kept\":[2]}", text);
+
+        innermost.add(3);
+        assertSame(text, root.toString());
+        assertEquals("{\"inner\":[[1, 3]]}", removed.toString());
+    }
+
+    @Test
+    void test_serialized_size() {
+        var trees = new JsonElement<?>[] {
+                Json.treeFromString(JSON),
+                new JsonMap().add("k\"\u2028", "😀\ud800x\udc00€\u0001").add("n", Long.MIN_VALUE).add("m", -9L),
+                new JsonList(0L, 10L, 1e300, -0.5, new BigInteger("123456789012345678901234567890")),
+                JsonString.from("ä\t"), JsonNull.NULL, JsonBool.FALSE, new JsonList(), new JsonMap(),
+                Json.treeFromString("[[1,[2.5,{\"a\":[]}]],{\"b\":[3,{}],\"c\":1e-7},[],[[]]]"),
+        };
+        for (var tree : trees) {
+            var text = tree.toString();
+            assertEquals(new JsonSize(text.length(), text.getBytes(UTF_8).length), tree.serializedSize(), text);
+            // Again with the cached lengths of the numbers
+            assertEquals(new JsonSize(text.length(), text.getBytes(UTF_8).length), tree.serializedSize(), text);
+        }
+    }
+
+    @Test
+    void test_serialized_size_cached() {
+        var inner = new JsonList();
+        for (var i = 0; i < 100; i++)
+            inner.add("entry-" + i);
+        var tree = new JsonMap().add("inner", inner);
+        var size = tree.serializedSize();
+        assertSame(size, tree.serializedSize());
+        assertEquals(size.utf8Bytes(), tree.toUtf8Bytes().length);
+
+        inner.add("ö");
+        var text = tree.toString();
+        assertEquals(new JsonSize(text.length(), text.getBytes(UTF_8).length), tree.serializedSize());
+        assertArrayEquals(text.getBytes(UTF_8), tree.toUtf8Bytes());
+    }
+
+}
\ No newline at end of file
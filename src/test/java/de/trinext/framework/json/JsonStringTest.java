@@ -42,6 +42,12 @@ class JsonStringTest {
                 ));
     }
 
+    @Test
+    void test_to_string_escapes() {
+        for (var str : new String[]{"", "plain", "\"\\/", "\t\b\n\r\f\u0000\u001f\u007f", "<>&='", "\u2028\u2029ä€\ud83d\ude00"})
+            assertEquals(new JsonPrimitive(str).toString(), JsonString.from(str).toString());
+    }
+
     @Test
     void test_from_literal() {
         runForRandomStrings(WORD_LENGTH, WORDS_PER_TEST,
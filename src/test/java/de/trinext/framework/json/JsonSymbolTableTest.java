@@ -0,0 +1,78 @@
+package de.trinext.framework.json;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonSymbolTableTest {
+
+    private static final String JSON = IntStream.range(0, 100)
+            .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"n\",\"k\\u00e4y\":\"long value " + i + "\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    @Test
+    void test_keys_are_shared() {
+        var symbols = new JsonSymbolTable(64);
+        var list = (JsonList) Json.treeFromBytes(JSON.getBytes(UTF_8), symbols);
+        assertEquals(Json.treeFromString(JSON), list);
+        var first = ((JsonMap) list.value.get(0)).value.keySet().toArray(String[]::new);
+        var last = ((JsonMap) list.value.get(99)).value.keySet().toArray(String[]::new);
+        assertSame(first[0], last[0]);
+        assertSame(first[1], last[1]);
+        // Keys with escapes are not cached
+        assertEquals(first[2], last[2]);
+        assertEquals(2, symbols.misses());
+        assertEquals(198, symbols.hits());
+    }
+
+    @Test
+    void test_short_values() {
+        var symbols = new JsonSymbolTable(64, 8);
+        var list = (JsonList) Json.treeFromString(JSON, symbols);
+        assertEquals(Json.treeFromString(JSON), list);
+        var first = ((JsonMap) list.value.get(0)).value.get("name").value;
+        var last = ((JsonMap) list.value.get(99)).value.get("name").value;
+        assertSame(first, last);
+        assertEquals(3, symbols.misses());
+        assertEquals(297, symbols.hits());
+        symbols.resetCounters();
+        assertEquals(0, symbols.hits());
+    }
+
+    @Test
+    void test_no_table_by_default() {
+        var shared = JsonSymbolTable.shared();
+        var hits = shared.hits();
+        var misses = shared.misses();
+        var list = (JsonList) Json.treeFromString(JSON);
+        var first = ((JsonMap) list.value.get(0)).value.keySet().toArray(String[]::new);
+        var last = ((JsonMap) list.value.get(99)).value.keySet().toArray(String[]::new);
+        assertNotSame(first[0], last[0]);
+        assertEquals(hits, shared.hits());
+        assertEquals(misses, shared.misses());
+    }
+
+    @Test
+    void test_collisions() {
+        // A single slot, that is taken over by each new key
+        var symbols = new JsonSymbolTable(1);
+        assertEquals(Json.treeFromString(JSON), Json.treeFromString(JSON, symbols));
+        assertEquals(1, symbols.capacity());
+        assertEquals(200, symbols.misses());
+    }
+
+    @Test
+    void test_invalid_capacity() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonSymbolTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new JsonSymbolTable(16, -1));
+        assertEquals(16, new JsonSymbolTable(9).capacity());
+    }
+
+}
\ No newline at end of file
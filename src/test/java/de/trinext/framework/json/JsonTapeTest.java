@@ -0,0 +1,85 @@
+package de.trinext.framework.json;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.util.TestConstants.field;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonTapeTest {
+
+    private static final String JSON = "{\"field-1\":[1,-2.5,true,null,\"x\"],\"fäld-2\":\"a\\\"\",\"field\\u002D3\":{\"field-4\":[{},[]]},\"field-1\":{\"field-5\":7}}";
+
+    @Test
+    void test_equals_eager_tree() {
+        assertEquals(Json.treeFromString(JSON), Json.lazyTreeFromBytes(JSON.getBytes(UTF_8)));
+        assertEquals(Json.treeFromString(JSON), Json.lazyTreeFromString(JSON));
+        assertEquals(Json.treeFromString(JSON).toString(), Json.lazyTreeFromString(JSON).toString());
+    }
+
+    @Test
+    void test_path_lookups() {
+        var lazy = Json.lazyTreeFromBytes(JSON.getBytes(UTF_8));
+        assertEquals(7, lazy.tryGetPathAsInt(field(1) + "." + field(5)).orElseThrow());
+        assertEquals("a\"", lazy.tryGetPathAsString("fäld-2").orElseThrow());
+        assertEquals(new JsonList(new JsonMap(), new JsonList()), lazy.tryGetPath(field(3) + "." + field(4)).orElseThrow());
+        assertTrue(lazy.tryGetPath(field(6)).isEmpty());
+        var list = Json.lazyTreeFromString("[[1,2],[3,4]]");
+        assertEquals(3, list.tryGetPathAsInt("1.0").orElseThrow());
+    }
+
+    @Test
+    void test_size() {
+        var lazy = (JsonMap) Json.lazyTreeFromString(JSON);
+        assertEquals(3, lazy.value.size());
+        assertEquals(1, ((JsonMap) Json.lazyTreeFromString("{\"a\":1}")).value.size());
+        assertEquals(0, ((JsonMap) Json.lazyTreeFromString("{}")).value.size());
+        var list = (JsonList) Json.lazyTreeFromString("[1,[2],{}]");
+        assertEquals(3, list.value.size());
+        assertEquals(JsonInteger.from(2), list.tryGetPath("1.0").orElseThrow());
+    }
+
+    @Test
+    void test_indexed_lookups() {
+        var json = new StringBuilder("{\"\\u0041\":[0]");
+        for (var i = 1; i < 20; i++)
+            json.append(",\"k").append(i).append("\":").append(i);
+        var lazy = (JsonMap) Json.lazyTreeFromString(json.append(",\"k1\":-1}").toString());
+        for (var round = 0; round < 3; round++) {
+            assertEquals(-1, lazy.tryGetPathAsInt("k1").orElseThrow());
+            assertEquals(19, lazy.tryGetPathAsInt("k19").orElseThrow());
+            assertTrue(lazy.tryGetPath("k20").isEmpty());
+            assertTrue(lazy.value.containsKey("A"));
+            assertSame(lazy.value.get("A"), lazy.value.get("A"));
+        }
+        assertInstanceOf(JsonTapeMap.class, lazy.value);
+        assertEquals(20, lazy.value.size());
+        assertEquals(Json.treeFromString(json.toString()), lazy);
+    }
+
+    @Test
+    void test_modify() {
+        var lazy = (JsonMap) Json.lazyTreeFromString(JSON);
+        assertTrue(lazy.removeKey(field(1)));
+        lazy.add(field(6), 6);
+        var list = (JsonList) lazy.tryGetPath(field(3) + "." + field(4)).orElseThrow();
+        list.add(1);
+        assertEquals(3, list.size());
+        var expected = (JsonMap) Json.treeFromString(JSON);
+        expected.removeKey(field(1));
+        expected.add(field(6), 6);
+        ((JsonList) expected.tryGetPath(field(3) + "." + field(4)).orElseThrow()).add(1);
+        assertEquals(expected, lazy);
+    }
+
+    @Test
+    void test_invalid() {
+        assertThrows(JsonParseException.class, () -> Json.lazyTreeFromString("{\"a\":[1,}"));
+        assertThrows(JsonParseException.class, () -> Json.lazyTreeFromString("[\"\\x\"]"));
+        assertThrows(JsonParseException.class, () -> Json.lazyTreeFromString("[1] [2]"));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package de.trinext.framework.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static test.util.RandomHelper.*;
+import static test.util.TestConstants.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonTextParserTest {
+
+    @Test
+    void test_parse_primitives() {
+        assertEquals(JsonBool.TRUE, Json.treeFromString("true"));
+        assertEquals(JsonBool.FALSE, Json.treeFromString(" false "));
+        assertEquals(JsonNull.NULL, Json.treeFromString("null"));
+        assertEquals(JsonString.from("a\"b\\c/\n\u00e4"), Json.treeFromString("\"a\\\"b\\\\c\\/\\n\\u00e4\""));
+        runForRandomLongs(NRS_PER_TEST, randLong -> assertEquals(
+                JsonInteger.from(randLong),
+                Json.treeFromString(Long.toString(randLong))
+        ));
+        runForRandomBigDecs(NRS_PER_TEST, randBigDec -> assertEquals(
+                JsonDecimal.from(randBigDec),
+                Json.treeFromString(randBigDec.toString())
+        ));
+        var bigInt = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TEN);
+        assertEquals(JsonInteger.from(bigInt), Json.treeFromString(bigInt.toString()));
+        assertEquals(JsonDecimal.from(new BigDecimal("-1.5E+3")), Json.treeFromString("-1.5e3"));
+    }
+
+    @Test
+    void test_parse_containers() {
+        var expected = new JsonMap()
+                .add(field(1), 1)
+                .addList(field(2), "a", true)
+                .addObj(field(3), o -> o.add(field(4), JsonNull.NULL).add(field(5), new JsonList()))
+                .add(field(6), new JsonMap());
+        var parsed = Json.treeFromString(
+                "{ \"field-1\" : 1, \"field-2\":[\"a\",true],"
+                + "\"field-3\":{\"field-4\":null,\"field-5\":[ ]},\"field-6\":{}}"
+        );
+        assertEquals(expected, parsed);
+    }
+
+    @Test
+    void test_parse_deeply_nested() {
+        var depth = 100_000;
+        var parsed = Json.treeFromString("[".repeat(depth) + "]".repeat(depth));
+        for (var i = 1; i < depth; i++)
+            parsed = ((JsonList) parsed).tryGet(0).orElseThrow();
+        assertTrue(((JsonList) parsed).isEmpty());
+    }
+
+    @Test
+    void test_parse_invalid() {
+        for (var invalid : new String[]{
+                "", "{", "[1,]", "{\"a\"}", "{\"a\":1,}", "01", "1.", "-", "tru", "\"abc", "\"\\x\"", "[1 2]", "{} {}"
+        })
+            assertThrows(JsonParseException.class, () -> Json.treeFromString(invalid), invalid);
+    }
+
+}
\ No newline at end of file
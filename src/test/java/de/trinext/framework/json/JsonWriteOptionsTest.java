@@ -0,0 +1,85 @@
+package de.trinext.framework.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonWriteOptionsTest {
+
+    private static final String JSON = "{\"b\":[1, -2.5, true, null, {}, []], \"a\":\"ä€\\n\", \"c\":{\"d\":[[\"x\"]]}}";
+
+    @Test
+    void test_default() {
+        var tree = Json.treeFromString(JSON);
+        assertEquals(JSON, tree.toString(JsonWriteOptions.DEFAULT));
+        assertTrue(JsonWriteOptions.DEFAULT.isDefault());
+        assertFalse(JsonWriteOptions.COMPACT.isDefault());
+    }
+
+    @Test
+    void test_compact() {
+        var tree = Json.treeFromString(JSON);
+        var compact = "{\"b\":[1,-2.5,true,null,{},[]],\"a\":\"ä€\\n\",\"c\":{\"d\":[[\"x\"]]}}";
+        assertEquals(compact, tree.toString(JsonWriteOptions.COMPACT));
+        assertEquals(tree, Json.treeFromString(compact));
+    }
+
+    @Test
+    void test_pretty() throws IOException {
+        var tree = Json.treeFromString(JSON);
+        var pretty = """
+                {
+                  "b": [
+                    1,
+                    -2.5,
+                    true,
+                    null,
+                    {},
+                    []
+                  ],
+                  "a": "ä€\\n",
+                  "c": {
+                    "d": [
+                      [
+                        "x"
+                      ]
+                    ]
+                  }
+                }""";
+        var writer = new StringWriter();
+        tree.writeTo(writer, JsonWriteOptions.pretty(2));
+        assertEquals(pretty, writer.toString());
+        assertEquals(tree, Json.treeFromString(pretty));
+        assertEquals("[\n1,\n2\n]", new JsonList(1L, 2L).toString(JsonWriteOptions.pretty(0)));
+        assertThrows(IllegalArgumentException.class, () -> JsonWriteOptions.pretty(-1));
+    }
+
+    @Test
+    void test_sorted_keys_and_ascii_only() {
+        var tree = Json.treeFromString(JSON);
+        var options = JsonWriteOptions.COMPACT.withSortedKeys().withAsciiOnly();
+        assertTrue(options.isSortedKeys());
+        assertTrue(options.isAsciiOnly());
+        assertEquals(
+                "{\"a\":\"\\u00e4\\u20ac\\n\",\"b\":[1,-2.5,true,null,{},[]],\"c\":{\"d\":[[\"x\"]]}}",
+                tree.toString(options)
+        );
+        assertEquals("\"\\ud83d\\ude00\"", JsonString.from("😀").toString(options));
+    }
+
+    @Test
+    void test_memoised_text_unaffected() {
+        var tree = (JsonMap) Json.treeFromString(JSON);
+        var text = tree.toString();
+        assertNotEquals(text, tree.toString(JsonWriteOptions.COMPACT));
+        assertSame(text, tree.toString());
+        assertEquals(JSON, text);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package de.trinext.framework.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Dennis Woithe
+ */
+class JsonWriterTest {
+
+    @Test
+    void test_write_document() throws IOException {
+        var text = new StringWriter();
+        try (var writer = new JsonWriter(text)) {
+            writer.beginObject()
+                    .name("a").beginArray().value(1L).value(-2.5).value(true).nullValue().value("ä\n\"").endArray()
+                    .name("k\"y").value(new BigDecimal("1.50"))
+                    .name("big").value(new BigInteger("123456789012345678901234567890"))
+                    .name("empty").beginObject().endObject()
+                    .name("tree").value(Json.treeFromString("{\"x\":[1, {}]}"))
+                    .endObject();
+        }
+        var expected = new JsonMap()
+                .add("a", new JsonList(1L, -2.5, true, JsonNull.NULL, "ä\n\""))
+                .add("k\"y", new BigDecimal("1.50"))
+                .add("big", new BigInteger("123456789012345678901234567890"))
+                .add("empty", new JsonMap())
+                .add("tree", Json.treeFromString("{\"x\":[1, {}]}"));
+        assertEquals(expected.toString(), text.toString());
+        assertEquals(expected, Json.treeFromString(text.toString()));
+    }
+
+    @Test
+    void test_write_utf8() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new JsonWriter(bytes)) {
+            writer.value("€😀");
+        }
+        assertEquals("\"€😀\"", bytes.toString(UTF_8));
+    }
+
+    @Test
+    void test_write_many_rows() throws IOException {
+        var counted = new long[1];
+        var sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                counted[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                counted[0] += len;
+            }
+        };
+        var row = "{\"id\":0, \"name\":\"row\"}";
+        var rows = 200_000;
+        try (var writer = new JsonWriter(sink)) {
+            writer.beginArray();
+            for (var i = 0; i < rows; i++)
+                writer.beginObject().name("id").value(0L).name("name").value("row").endObject();
+            writer.endArray();
+        }
+        assertEquals(2 + (long) rows * row.length() + (rows - 1) * 2L, counted[0]);
+    }
+
+    @Test
+    void test_invalid() throws IOException {
+        var writer = new JsonWriter(new StringWriter());
+        assertThrows(IllegalStateException.class, writer::endArray);
+        writer.beginObject();
+        assertThrows(IllegalStateException.class, () -> writer.value(1L));
+        writer.name("a");
+        assertThrows(IllegalStateException.class, () -> writer.name("b"));
+        assertThrows(IllegalStateException.class, writer::endObject);
+        assertThrows(IllegalArgumentException.class, () -> writer.value(Double.NaN));
+        writer.value(1L).endObject();
+        assertThrows(IllegalStateException.class, writer::nullValue);
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> new JsonWriter(new StringWriter()).beginArray().close());
+    }
+
+    @Test
+    void test_write_with_options() throws IOException {
+        var text = new StringWriter();
+        try (var writer = new JsonWriter(text, JsonWriteOptions.pretty(2))) {
+            writer.beginObject()
+                    .name("a").beginArray().value(1L).beginArray().endArray().endArray()
+                    .name("t").value(Json.treeFromString("{\"x\":[1]}"))
+                    .endObject();
+        }
+        var expected = new JsonMap()
+                .add("a", new JsonList(1L, new JsonList()))
+                .add("t", Json.treeFromString("{\"x\":[1]}"));
+        assertEquals(expected.toString(JsonWriteOptions.pretty(2)), text.toString());
+    }
+
+    @Test
+    void test_reformat() throws IOException {
+        var json = " { \"b\" : [ 1.50 , -0, 1E5, \"\\u00e4\\/\" ] ,\n\"a\":{ } , \"c\":[true,false,null]}";
+        var compact = new StringWriter();
+        Json.reformat(new StringReader(json), compact, JsonWriteOptions.COMPACT);
+        assertEquals("{\"b\":[1.50,-0,1E5,\"ä/\"],\"a\":{},\"c\":[true,false,null]}", compact.toString());
+
+        var pretty = new ByteArrayOutputStream();
+        Json.reformat(new ByteArrayInputStream(json.getBytes(UTF_8)), pretty, JsonWriteOptions.pretty(1).withSortedKeys());
+        assertEquals(
+                Json.treeFromString(json).toString(JsonWriteOptions.pretty(1).withSortedKeys()),
+                pretty.toString(UTF_8)
+        );
+
+        assertThrows(JsonParseException.class,
+                () -> Json.reformat(new StringReader("[1, 2"), new StringWriter(), JsonWriteOptions.COMPACT));
+        assertThrows(JsonParseException.class,
+                () -> Json.reformat(new StringReader("[1] 2"), new StringWriter(), JsonWriteOptions.COMPACT));
+    }
+
+}
\ No newline at end of file